@@ -0,0 +1,524 @@
+package file;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AccessMode;
+import java.nio.file.CopyOption;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystem;
+import java.nio.file.LinkOption;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.ProviderMismatchException;
+import java.nio.file.SecureDirectoryStream;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.UserPrincipalLookupService;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * File system wrapper counting the file system calls the walkers cause.
+ * <p>
+ * Paths of this file system delegate to paths of the wrapped one, and its {@link FileSystemProvider} counts every
+ * attribute read or access check as a stat and every opened directory as a directory read before delegating. Only
+ * {@code java.nio.file} walkers are counted; {@link File} works on the platform file system directly, so
+ * {@link Path#toFile()} leaves this wrapper. Counting is thread-safe for the parallel walkers.
+ * <p>
+ * Wrapped paths do not carry the attributes Windows caches while listing a directory, so on Windows the counts are an
+ * upper bound of the real calls.
+ */
+public final class CountingFileSystem extends FileSystem {
+	
+	private final FileSystem delegate;
+	private final CountingProvider provider;
+	private final LongAdder stats = new LongAdder();
+	private final LongAdder directoryReads = new LongAdder();
+	
+	public CountingFileSystem(final FileSystem delegate) {
+		this.delegate = delegate;
+		provider = new CountingProvider(delegate.provider());
+	}
+	
+	/**
+	 * Returns the counting path for a path of the wrapped file system.
+	 *
+	 * @param path
+	 * 		path of the wrapped file system
+	 * @return counting path
+	 */
+	public Path wrap(final Path path) {
+		if (path.getFileSystem() != delegate) {
+			throw new ProviderMismatchException();
+		}
+		return new CountingPath(path);
+	}
+	
+	public long stats() {
+		return stats.sum();
+	}
+	
+	public long directoryReads() {
+		return directoryReads.sum();
+	}
+	
+	public void resetCounts() {
+		stats.reset();
+		directoryReads.reset();
+	}
+	
+	private Path wrapNullable(final Path path) {
+		return path == null ? null : new CountingPath(path);
+	}
+	
+	private static Path unwrap(final Path path) {
+		if (path instanceof final CountingPath countingPath) {
+			return countingPath.delegate;
+		}
+		throw new ProviderMismatchException();
+	}
+	
+	@Override
+	public FileSystemProvider provider() {
+		return provider;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		delegate.close();
+	}
+	
+	@Override
+	public boolean isOpen() {
+		return delegate.isOpen();
+	}
+	
+	@Override
+	public boolean isReadOnly() {
+		return delegate.isReadOnly();
+	}
+	
+	@Override
+	public String getSeparator() {
+		return delegate.getSeparator();
+	}
+	
+	@Override
+	public Iterable<Path> getRootDirectories() {
+		final List<Path> roots = new ArrayList<>();
+		for (final Path root : delegate.getRootDirectories()) {
+			roots.add(new CountingPath(root));
+		}
+		return roots;
+	}
+	
+	@Override
+	public Iterable<FileStore> getFileStores() {
+		return delegate.getFileStores();
+	}
+	
+	@Override
+	public Set<String> supportedFileAttributeViews() {
+		return delegate.supportedFileAttributeViews();
+	}
+	
+	@Override
+	public Path getPath(final String first, final String... more) {
+		return new CountingPath(delegate.getPath(first, more));
+	}
+	
+	@Override
+	public PathMatcher getPathMatcher(final String syntaxAndPattern) {
+		final PathMatcher matcher = delegate.getPathMatcher(syntaxAndPattern);
+		return path -> matcher.matches(unwrap(path));
+	}
+	
+	@Override
+	public UserPrincipalLookupService getUserPrincipalLookupService() {
+		return delegate.getUserPrincipalLookupService();
+	}
+	
+	@Override
+	public WatchService newWatchService() throws IOException {
+		return delegate.newWatchService();
+	}
+	
+	private final class CountingPath implements Path {
+		private final Path delegate;
+		
+		CountingPath(final Path delegate) {
+			this.delegate = delegate;
+		}
+		
+		@Override
+		public FileSystem getFileSystem() {
+			return CountingFileSystem.this;
+		}
+		
+		@Override
+		public boolean isAbsolute() {
+			return delegate.isAbsolute();
+		}
+		
+		@Override
+		public Path getRoot() {
+			return wrapNullable(delegate.getRoot());
+		}
+		
+		@Override
+		public Path getFileName() {
+			return wrapNullable(delegate.getFileName());
+		}
+		
+		@Override
+		public Path getParent() {
+			return wrapNullable(delegate.getParent());
+		}
+		
+		@Override
+		public int getNameCount() {
+			return delegate.getNameCount();
+		}
+		
+		@Override
+		public Path getName(final int index) {
+			return new CountingPath(delegate.getName(index));
+		}
+		
+		@Override
+		public Path subpath(final int beginIndex, final int endIndex) {
+			return new CountingPath(delegate.subpath(beginIndex, endIndex));
+		}
+		
+		@Override
+		public boolean startsWith(final Path other) {
+			return other instanceof final CountingPath path && delegate.startsWith(path.delegate);
+		}
+		
+		@Override
+		public boolean endsWith(final Path other) {
+			return other instanceof final CountingPath path && delegate.endsWith(path.delegate);
+		}
+		
+		@Override
+		public Path normalize() {
+			return new CountingPath(delegate.normalize());
+		}
+		
+		@Override
+		public Path resolve(final Path other) {
+			return new CountingPath(delegate.resolve(unwrap(other)));
+		}
+		
+		@Override
+		public Path relativize(final Path other) {
+			return new CountingPath(delegate.relativize(unwrap(other)));
+		}
+		
+		@Override
+		public URI toUri() {
+			return delegate.toUri();
+		}
+		
+		@Override
+		public Path toAbsolutePath() {
+			return new CountingPath(delegate.toAbsolutePath());
+		}
+		
+		@Override
+		public Path toRealPath(final LinkOption... options) throws IOException {
+			stats.increment();
+			return new CountingPath(delegate.toRealPath(options));
+		}
+		
+		@Override
+		public File toFile() {
+			return delegate.toFile();
+		}
+		
+		@Override
+		public WatchKey register(final WatchService watcher, final WatchEvent.Kind<?>[] events,
+				final WatchEvent.Modifier... modifiers) throws IOException {
+			return delegate.register(watcher, events, modifiers);
+		}
+		
+		@Override
+		public int compareTo(final Path other) {
+			return delegate.compareTo(unwrap(other));
+		}
+		
+		@Override
+		public boolean equals(final Object obj) {
+			return obj instanceof final CountingPath path && delegate.equals(path.delegate);
+		}
+		
+		@Override
+		public int hashCode() {
+			return delegate.hashCode();
+		}
+		
+		@Override
+		public String toString() {
+			return delegate.toString();
+		}
+	}
+	
+	private final class CountingProvider extends FileSystemProvider {
+		private final FileSystemProvider delegate;
+		
+		CountingProvider(final FileSystemProvider delegate) {
+			this.delegate = delegate;
+		}
+		
+		@Override
+		public String getScheme() {
+			return delegate.getScheme();
+		}
+		
+		/**
+		 * Wraps the new file system of the delegate; it counts separately from this one.
+		 */
+		@Override
+		public FileSystem newFileSystem(final URI uri, final Map<String, ?> env) throws IOException {
+			return new CountingFileSystem(delegate.newFileSystem(uri, env));
+		}
+		
+		/**
+		 * Returns this file system for the wrapped one, other file systems of the delegate are wrapped and count
+		 * separately.
+		 */
+		@Override
+		public FileSystem getFileSystem(final URI uri) {
+			final FileSystem fileSystem = delegate.getFileSystem(uri);
+			return fileSystem == CountingFileSystem.this.delegate ? CountingFileSystem.this :
+					new CountingFileSystem(fileSystem);
+		}
+		
+		@Override
+		public Path getPath(final URI uri) {
+			return wrap(delegate.getPath(uri));
+		}
+		
+		@Override
+		public SeekableByteChannel newByteChannel(final Path path, final Set<? extends OpenOption> options,
+				final FileAttribute<?>... attrs) throws IOException {
+			return delegate.newByteChannel(unwrap(path), options, attrs);
+		}
+		
+		@Override
+		public DirectoryStream<Path> newDirectoryStream(final Path dir,
+				final DirectoryStream.Filter<? super Path> filter) throws IOException {
+			directoryReads.increment();
+			final DirectoryStream<Path> stream =
+					delegate.newDirectoryStream(unwrap(dir), entry -> filter.accept(new CountingPath(entry)));
+			if (stream instanceof final SecureDirectoryStream<Path> secure) {
+				return new CountingSecureDirectoryStream(secure);
+			}
+			return new CountingDirectoryStream(stream);
+		}
+		
+		@Override
+		public void createDirectory(final Path dir, final FileAttribute<?>... attrs) throws IOException {
+			delegate.createDirectory(unwrap(dir), attrs);
+		}
+		
+		@Override
+		public void createSymbolicLink(final Path link, final Path target, final FileAttribute<?>... attrs)
+				throws IOException {
+			delegate.createSymbolicLink(unwrap(link), unwrap(target), attrs);
+		}
+		
+		@Override
+		public void delete(final Path path) throws IOException {
+			delegate.delete(unwrap(path));
+		}
+		
+		@Override
+		public Path readSymbolicLink(final Path link) throws IOException {
+			return new CountingPath(delegate.readSymbolicLink(unwrap(link)));
+		}
+		
+		@Override
+		public void copy(final Path source, final Path target, final CopyOption... options) throws IOException {
+			delegate.copy(unwrap(source), unwrap(target), options);
+		}
+		
+		@Override
+		public void move(final Path source, final Path target, final CopyOption... options) throws IOException {
+			delegate.move(unwrap(source), unwrap(target), options);
+		}
+		
+		@Override
+		public boolean isSameFile(final Path path, final Path path2) throws IOException {
+			stats.increment();
+			return delegate.isSameFile(unwrap(path), unwrap(path2));
+		}
+		
+		@Override
+		public boolean isHidden(final Path path) throws IOException {
+			return delegate.isHidden(unwrap(path));
+		}
+		
+		@Override
+		public FileStore getFileStore(final Path path) throws IOException {
+			return delegate.getFileStore(unwrap(path));
+		}
+		
+		@Override
+		public void checkAccess(final Path path, final AccessMode... modes) throws IOException {
+			stats.increment();
+			delegate.checkAccess(unwrap(path), modes);
+		}
+		
+		@Override
+		public <V extends FileAttributeView> V getFileAttributeView(final Path path, final Class<V> type,
+				final LinkOption... options) {
+			return countingView(delegate.getFileAttributeView(unwrap(path), type, options), type);
+		}
+		
+		@Override
+		public <A extends BasicFileAttributes> A readAttributes(final Path path, final Class<A> type,
+				final LinkOption... options) throws IOException {
+			stats.increment();
+			return delegate.readAttributes(unwrap(path), type, options);
+		}
+		
+		@Override
+		public Map<String, Object> readAttributes(final Path path, final String attributes,
+				final LinkOption... options) throws IOException {
+			stats.increment();
+			return delegate.readAttributes(unwrap(path), attributes, options);
+		}
+		
+		@Override
+		public void setAttribute(final Path path, final String attribute, final Object value,
+				final LinkOption... options) throws IOException {
+			delegate.setAttribute(unwrap(path), attribute, value, options);
+		}
+	}
+	
+	/**
+	 * Wraps basic attribute views to count their reads. Other view types are returned uncounted.
+	 */
+	private <V extends FileAttributeView> V countingView(final V view, final Class<V> type) {
+		if (view == null || type != BasicFileAttributeView.class) {
+			return view;
+		}
+		final BasicFileAttributeView basic = (BasicFileAttributeView) view;
+		return type.cast(new BasicFileAttributeView() {
+			@Override
+			public String name() {
+				return basic.name();
+			}
+			
+			@Override
+			public BasicFileAttributes readAttributes() throws IOException {
+				stats.increment();
+				return basic.readAttributes();
+			}
+			
+			@Override
+			public void setTimes(final FileTime lastModifiedTime, final FileTime lastAccessTime,
+					final FileTime createTime) throws IOException {
+				basic.setTimes(lastModifiedTime, lastAccessTime, createTime);
+			}
+		});
+	}
+	
+	private class CountingDirectoryStream implements DirectoryStream<Path> {
+		private final DirectoryStream<Path> delegate;
+		
+		CountingDirectoryStream(final DirectoryStream<Path> delegate) {
+			this.delegate = delegate;
+		}
+		
+		@Override
+		public Iterator<Path> iterator() {
+			final Iterator<Path> iterator = delegate.iterator();
+			return new Iterator<>() {
+				@Override
+				public boolean hasNext() {
+					return iterator.hasNext();
+				}
+				
+				@Override
+				public Path next() {
+					return new CountingPath(iterator.next());
+				}
+			};
+		}
+		
+		@Override
+		public void close() throws IOException {
+			delegate.close();
+		}
+	}
+	
+	private final class CountingSecureDirectoryStream extends CountingDirectoryStream
+			implements SecureDirectoryStream<Path> {
+		private final SecureDirectoryStream<Path> delegate;
+		
+		CountingSecureDirectoryStream(final SecureDirectoryStream<Path> delegate) {
+			super(delegate);
+			this.delegate = delegate;
+		}
+		
+		@Override
+		public SecureDirectoryStream<Path> newDirectoryStream(final Path path, final LinkOption... options)
+				throws IOException {
+			directoryReads.increment();
+			return new CountingSecureDirectoryStream(delegate.newDirectoryStream(unwrap(path), options));
+		}
+		
+		@Override
+		public SeekableByteChannel newByteChannel(final Path path, final Set<? extends OpenOption> options,
+				final FileAttribute<?>... attrs) throws IOException {
+			return delegate.newByteChannel(unwrap(path), options, attrs);
+		}
+		
+		@Override
+		public void deleteFile(final Path path) throws IOException {
+			delegate.deleteFile(unwrap(path));
+		}
+		
+		@Override
+		public void deleteDirectory(final Path path) throws IOException {
+			delegate.deleteDirectory(unwrap(path));
+		}
+		
+		@Override
+		public void move(final Path srcpath, final SecureDirectoryStream<Path> targetdir, final Path targetpath)
+				throws IOException {
+			if (!(targetdir instanceof final CountingSecureDirectoryStream target)) {
+				throw new ProviderMismatchException();
+			}
+			delegate.move(unwrap(srcpath), target.delegate, unwrap(targetpath));
+		}
+		
+		@Override
+		public <V extends FileAttributeView> V getFileAttributeView(final Class<V> type) {
+			return countingView(delegate.getFileAttributeView(type), type);
+		}
+		
+		@Override
+		public <V extends FileAttributeView> V getFileAttributeView(final Path path, final Class<V> type,
+				final LinkOption... options) {
+			return countingView(delegate.getFileAttributeView(unwrap(path), type, options), type);
+		}
+	}
+}
@@ -6,17 +6,17 @@ import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
-import org.openjdk.jmh.runner.Runner;
-import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
-import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.io.File;
 import java.io.IOException;
@@ -38,14 +38,29 @@ import java.util.stream.Stream;
 @State(Scope.Benchmark)
 public class FileCount {
 	
-	private final Path path = Path.of("D:\\projects\\Galaxy-Observer-UI\\dev\\heroes\\AhliObs.StormInterface");
-//	private final Path path = Path.of("D:\\GalaxyObsUi\\dev\\heroes\\AhliObs.StormInterface");
+	@Param({ "100", "10000", "1000000" })
+	private int fileCount;
+	@Param({ "1", "4" })
+	private int depth;
+	@Param({ "8" })
+	private int fanOut;
+	@Param({ "false", "true" })
+	private boolean symlinks;
+	private FileTreeFixture fixture;
+	private Path path;
+	private int expected;
 	private final FileCountingVisitor reusableFileVisitor = new FileCountingVisitor();
 	
-	public static void main(final String[] args) throws RunnerException {
-		final Options opt =
-				new OptionsBuilder().include(".*" + FileCount.class.getSimpleName() + ".*").forks(1).build();
-		new Runner(opt).run();
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		fixture = FileTreeFixture.create(fileCount, depth, fanOut, symlinks);
+		path = fixture.root();
+		expected = fixture.expectedFiles();
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		fixture.close();
 	}
 	
 	private static int searchInListFiles(final File directory) {
@@ -67,9 +82,9 @@ public class FileCount {
 		}
 	}
 	
-	private static long checkResult(final long val) {
-		if (val != 107) {
-			throw new IllegalArgumentException("Wrong result! Received " + val);
+	private long checkResult(final long val) {
+		if (val != expected) {
+			throw new IllegalArgumentException("Wrong result! Expected " + expected + ", received " + val);
 		}
 		return val;
 	}
@@ -127,9 +142,9 @@ public class FileCount {
 		bh.consume(checkResult(count));
 	}
 	
-	private static int checkResult(final int val) {
-		if (val != 107) {
-			throw new IllegalArgumentException("Wrong result! Received " + val);
+	private int checkResult(final int val) {
+		if (val != expected) {
+			throw new IllegalArgumentException("Wrong result! Expected " + expected + ", received " + val);
 		}
 		return val;
 	}
@@ -171,6 +186,33 @@ public class FileCount {
 		bh.consume(checkResult(count));
 	}
 	
+	@Benchmark
+	public void forkJoinPerDirectory(final Blackhole bh) throws IOException {
+		final int count = ParallelWalker.countForkJoin(path);
+		bh.consume(checkResult(count));
+	}
+	
+	@Benchmark
+	public void virtualThreadPerDirectory(final Blackhole bh) throws IOException {
+		final int count = ParallelWalker.countVirtualThreads(path);
+		bh.consume(checkResult(count));
+	}
+	
+	@Benchmark
+	public void findWithAttributes(final Blackhole bh) throws IOException {
+		try (final Stream<Path> find = Files.find(path, Integer.MAX_VALUE,
+				(file, attributes) -> !attributes.isDirectory())) {
+			final long count = find.count();
+			bh.consume(checkResult(count));
+		}
+	}
+	
+	@Benchmark
+	public void secureDirectoryStream(final Blackhole bh) throws IOException {
+		final int count = SecureDirectoryWalker.count(path);
+		bh.consume(checkResult(count));
+	}
+	
 	private static class FileCountingVisitor extends SimpleFileVisitor<Path> {
 		private int count = 0;
 		
@@ -0,0 +1,147 @@
+package file;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of bringing a file listing up to date after {@code changePercent} of the directories changed: a full
+ * {@link Files#walkFileTree} against the {@link IncrementalFileIndex} in both modes.
+ * <p>
+ * Every iteration measures a single refresh. Before it, a file is added to or removed from the next directories in
+ * turn; the changes are made in an iteration setup, as per-invocation setups would dominate the timing of short
+ * refreshes. In {@code WATCH} mode the setup also waits for the events, so the delivery latency of the OS is not part
+ * of the score. Recently changed directories are re-read once more by {@code MTIME} refreshes, see
+ * {@link IncrementalFileIndex#RACY_MILLIS}.
+ */
+@Warmup(iterations = 100)
+@Measurement(iterations = 500)
+@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G" })
+@Threads(1)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class FileIndexRefresh {
+	
+	private static final String CHANGED_FILE = "changed.txt";
+	
+	@Param({ "10000", "100000" })
+	private int fileCount;
+	@Param({ "2", "3" })
+	private int depth;
+	@Param({ "8" })
+	private int fanOut;
+	@Param({ "0", "1", "5", "10" })
+	private int changePercent;
+	@Param
+	private Strategy strategy;
+	private FileTreeFixture fixture;
+	private IncrementalFileIndex index;
+	private List<Path> directories;
+	private boolean[] changed;
+	private int changesPerOp;
+	private int cursor;
+	private int expected;
+	
+	public enum Strategy {
+		FULL_WALK,
+		MTIME,
+		WATCH
+	}
+	
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		fixture = FileTreeFixture.create(fileCount, depth, fanOut, false);
+		directories = fixture.directories();
+		changed = new boolean[directories.size()];
+		changesPerOp = (directories.size() * changePercent + 99) / 100;
+		cursor = 0;
+		expected = fixture.expectedFiles();
+		index = switch (strategy) {
+			case FULL_WALK -> null;
+			case MTIME -> IncrementalFileIndex.scanning(fixture.root());
+			case WATCH -> IncrementalFileIndex.watching(fixture.root());
+		};
+		if (index != null && index.fileCount() != expected) {
+			throw new IllegalStateException("Wrong index! Expected " + expected + ", received " + index.fileCount());
+		}
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		if (index != null) {
+			index.close();
+		}
+		// restore the tree, it may be kept for later runs
+		for (int i = 0; i < changed.length; ++i) {
+			if (changed[i]) {
+				Files.delete(directories.get(i).resolve(CHANGED_FILE));
+			}
+		}
+		fixture.close();
+	}
+	
+	@Setup(Level.Iteration)
+	public void change() throws IOException {
+		for (int c = 0; c < changesPerOp; ++c) {
+			final Path file = directories.get(cursor).resolve(CHANGED_FILE);
+			if (changed[cursor]) {
+				Files.delete(file);
+				--expected;
+			} else {
+				Files.createFile(file);
+				++expected;
+			}
+			changed[cursor] = !changed[cursor];
+			cursor = (cursor + 1) % changed.length;
+		}
+		if (strategy == Strategy.WATCH && changesPerOp > 0
+				&& !index.awaitChanges(changesPerOp, 10, TimeUnit.SECONDS)) {
+			throw new IllegalStateException("Missing watch events for " + changesPerOp + " directories");
+		}
+	}
+	
+	private int checkResult(final int val) {
+		if (val != expected) {
+			throw new IllegalArgumentException("Wrong result! Expected " + expected + ", received " + val);
+		}
+		return val;
+	}
+	
+	@Benchmark
+	public int refresh() throws IOException {
+		if (strategy == Strategy.FULL_WALK) {
+			final int[] count = new int[1];
+			Files.walkFileTree(fixture.root(), new SimpleFileVisitor<>() {
+				@Override
+				public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+					++count[0];
+					return FileVisitResult.CONTINUE;
+				}
+			});
+			return checkResult(count[0]);
+		}
+		index.refresh();
+		return checkResult(index.fileCount());
+	}
+}
@@ -6,17 +6,17 @@ import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
-import org.openjdk.jmh.runner.Runner;
-import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
-import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.io.File;
 import java.io.IOException;
@@ -39,13 +39,29 @@ import java.util.stream.Stream;
 @State(Scope.Benchmark)
 public class FileList {
 	
-	private final Path path = Path.of("D:\\projects\\Galaxy-Observer-UI\\dev\\heroes\\AhliObs.StormInterface");
-	//	private final Path path = Path.of("D:\\GalaxyObsUi\\dev\\heroes\\AhliObs.StormInterface");
+	@Param({ "100", "10000", "1000000" })
+	private int fileCount;
+	@Param({ "1", "4" })
+	private int depth;
+	@Param({ "8" })
+	private int fanOut;
+	@Param({ "false", "true" })
+	private boolean symlinks;
+	private FileTreeFixture fixture;
+	private Path path;
+	private int expected;
 	private final FileList.FileListingVisitor reusableFileVisitor = new FileList.FileListingVisitor();
 	
-	public static void main(final String[] args) throws RunnerException {
-		final Options opt = new OptionsBuilder().include(".*" + FileList.class.getSimpleName() + ".*").forks(1).build();
-		new Runner(opt).run();
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		fixture = FileTreeFixture.create(fileCount, depth, fanOut, symlinks);
+		path = fixture.root();
+		expected = fixture.expectedFiles();
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		fixture.close();
 	}
 	
 	private static List<File> searchInListFiles(final File directory) {
@@ -71,9 +87,9 @@ public class FileList {
 		}
 	}
 	
-	private static List<File> checkResultFile(final List<File> files) {
-		if (files.size() != 107) {
-			throw new IllegalArgumentException("Wrong result! Received " + files.size());
+	private List<File> checkResultFile(final List<File> files) {
+		if (files.size() != expected) {
+			throw new IllegalArgumentException("Wrong result! Expected " + expected + ", received " + files.size());
 		}
 		return files;
 	}
@@ -86,9 +102,9 @@ public class FileList {
 		}
 	}
 	
-	private static List<Path> checkResultPath(final List<Path> files) {
-		if (files.size() != 107) {
-			throw new IllegalArgumentException("Wrong result! Received " + files.size());
+	private List<Path> checkResultPath(final List<Path> files) {
+		if (files.size() != expected) {
+			throw new IllegalArgumentException("Wrong result! Expected " + expected + ", received " + files.size());
 		}
 		return files;
 	}
@@ -174,6 +190,33 @@ public class FileList {
 		bh.consume(checkResultPath(paths));
 	}
 	
+	@Benchmark
+	public void forkJoinPerDirectory(final Blackhole bh) throws IOException {
+		final List<Path> paths = ParallelWalker.listForkJoin(path);
+		bh.consume(checkResultPath(paths));
+	}
+	
+	@Benchmark
+	public void virtualThreadPerDirectory(final Blackhole bh) throws IOException {
+		final List<Path> paths = ParallelWalker.listVirtualThreads(path);
+		bh.consume(checkResultPath(paths));
+	}
+	
+	@Benchmark
+	public void findWithAttributes(final Blackhole bh) throws IOException {
+		try (final Stream<Path> find = Files.find(path, Integer.MAX_VALUE,
+				(file, attributes) -> !attributes.isDirectory())) {
+			final List<Path> paths = find.toList();
+			bh.consume(checkResultPath(paths));
+		}
+	}
+	
+	@Benchmark
+	public void secureDirectoryStream(final Blackhole bh) throws IOException {
+		final List<Path> paths = SecureDirectoryWalker.list(path);
+		bh.consume(checkResultPath(paths));
+	}
+	
 	private static class FileListingVisitor extends SimpleFileVisitor<Path> {
 		private List<Path> paths = new ArrayList<>();
 		
@@ -0,0 +1,204 @@
+package file;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Reading the content of generated files. Every variant feeds all bytes of all files in the same order into a
+ * {@link CRC32C}, which is intrinsified for arrays and both heap and direct buffers, and checks the result.
+ * <p>
+ * {@code bufferSize} of {@link Buffers} is the buffer of {@link BufferedInputStream} and the {@link ByteBuffer} of the
+ * channel reads, so only these variants run once per size. Heap buffers are read through a temporary direct buffer of
+ * the JDK. The mappings are limited to files below 2 GiB, as one {@link MappedByteBuffer} is.
+ * <p>
+ * The page cache is warm after the first iteration, so this measures the cost of the read paths, not of the device.
+ */
+@Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G" })
+@Threads(1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class FileRead {
+	
+	/** bytes read per call from the {@link BufferedInputStream} */
+	private static final int STREAM_READ = 1024;
+	
+	@Param
+	private Workload workload;
+	private FileTreeFixture fixture;
+	private List<Path> files;
+	private byte[] streamChunk;
+	private long expected;
+	
+	public enum Workload {
+		/** many files of one page */
+		SMALL_FILES(10_000, 2, 4096),
+		/** one file of 256 MiB */
+		LARGE_FILE(1, 0, 256 << 20);
+		
+		private final int fileCount;
+		private final int depth;
+		private final long fileSize;
+		
+		Workload(final int fileCount, final int depth, final long fileSize) {
+			this.fileCount = fileCount;
+			this.depth = depth;
+			this.fileSize = fileSize;
+		}
+	}
+	
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		fixture = FileTreeFixture.create(workload.fileCount, workload.depth, 8, false, workload.fileSize);
+		files = fixture.files();
+		streamChunk = new byte[STREAM_READ];
+		expected = checksumAllBytes();
+		
+		// each variant checks its checksum, the buffered ones in Buffers
+		mappedByteBuffer();
+		memorySegmentMapped();
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		fixture.close();
+	}
+	
+	/**
+	 * Buffers of the buffered and channel reads.
+	 */
+	@State(Scope.Benchmark)
+	public static class Buffers {
+		@Param({ "8192", "65536", "1048576" })
+		private int bufferSize;
+		private ByteBuffer heapBuffer;
+		private ByteBuffer directBuffer;
+		
+		@Setup(Level.Trial)
+		public void setup(final FileRead benchmark) throws IOException {
+			heapBuffer = ByteBuffer.allocate(bufferSize);
+			directBuffer = ByteBuffer.allocateDirect(bufferSize);
+			
+			benchmark.bufferedInputStream(this);
+			benchmark.channelHeapBuffer(this);
+			benchmark.channelDirectBuffer(this);
+		}
+	}
+	
+	private long checkResult(final long val) {
+		if (val != expected) {
+			throw new IllegalArgumentException("Wrong result! Expected " + expected + ", received " + val);
+		}
+		return val;
+	}
+	
+	@Benchmark
+	public long readAllBytes() throws IOException {
+		return checkResult(checksumAllBytes());
+	}
+	
+	private long checksumAllBytes() throws IOException {
+		final CRC32C checksum = new CRC32C();
+		for (final Path file : files) {
+			checksum.update(Files.readAllBytes(file));
+		}
+		return checksum.getValue();
+	}
+	
+	@Benchmark
+	public long bufferedInputStream(final Buffers buffers) throws IOException {
+		final CRC32C checksum = new CRC32C();
+		final byte[] chunk = streamChunk;
+		for (final Path file : files) {
+			try (final InputStream in = new BufferedInputStream(Files.newInputStream(file), buffers.bufferSize)) {
+				int read;
+				while ((read = in.read(chunk)) > 0) {
+					checksum.update(chunk, 0, read);
+				}
+			}
+		}
+		return checkResult(checksum.getValue());
+	}
+	
+	@Benchmark
+	public long channelHeapBuffer(final Buffers buffers) throws IOException {
+		return checkResult(readChannels(buffers.heapBuffer));
+	}
+	
+	@Benchmark
+	public long channelDirectBuffer(final Buffers buffers) throws IOException {
+		return checkResult(readChannels(buffers.directBuffer));
+	}
+	
+	private long readChannels(final ByteBuffer buffer) throws IOException {
+		final CRC32C checksum = new CRC32C();
+		for (final Path file : files) {
+			try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				buffer.clear();
+				while (channel.read(buffer) > 0) {
+					checksum.update(buffer.flip());
+					buffer.clear();
+				}
+			}
+		}
+		return checksum.getValue();
+	}
+	
+	@Benchmark
+	public long mappedByteBuffer() throws IOException {
+		final CRC32C checksum = new CRC32C();
+		for (final Path file : files) {
+			try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				checksum.update(mapped);
+			}
+		}
+		return checkResult(checksum.getValue());
+	}
+	
+	/**
+	 * Unlike a {@link MappedByteBuffer}, which is unmapped by the garbage collector, the segment is unmapped when its
+	 * arena closes.
+	 */
+	@Benchmark
+	public long memorySegmentMapped() throws IOException {
+		final CRC32C checksum = new CRC32C();
+		for (final Path file : files) {
+			try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+					final Arena arena = Arena.ofConfined()) {
+				final MemorySegment mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+				checksum.update(mapped.asByteBuffer());
+			}
+		}
+		return checkResult(checksum.getValue());
+	}
+}
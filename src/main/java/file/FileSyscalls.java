@@ -0,0 +1,151 @@
+package file;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * File system calls per walk of the {@code java.nio.file} counting variants of {@link FileCount}, next to the stat-once
+ * walkers. Walks go through a {@link CountingFileSystem}; the secondary results {@code stats} and
+ * {@code directoryReads} are the calls per walk. Scores include the counting overhead, so
+ * compare throughput in {@link FileCount}.
+ */
+@Warmup(iterations = 1, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 1, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G" })
+@Threads(1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class FileSyscalls {
+	
+	@Param({ "10000" })
+	private int fileCount;
+	@Param({ "1", "4" })
+	private int depth;
+	@Param({ "8" })
+	private int fanOut;
+	@Param({ "false", "true" })
+	private boolean symlinks;
+	private FileTreeFixture fixture;
+	private CountingFileSystem fileSystem;
+	private Path path;
+	private int expected;
+	
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		fixture = FileTreeFixture.create(fileCount, depth, fanOut, symlinks);
+		fileSystem = new CountingFileSystem(FileSystems.getDefault());
+		path = fileSystem.wrap(fixture.root());
+		expected = fixture.expectedFiles();
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		fixture.close();
+	}
+	
+	/**
+	 * Calls of the last walk. JMH sums event counters over the measurement iterations, so each iteration reports its
+	 * share of the calls and the sum reads as calls per walk.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Calls {
+		public double stats;
+		public double directoryReads;
+		private double share;
+		
+		@Setup(Level.Iteration)
+		public void setup(final IterationParams iteration) {
+			share = 1.0 / iteration.getCount();
+		}
+		
+		void record(final CountingFileSystem fileSystem) {
+			stats = fileSystem.stats() * share;
+			directoryReads = fileSystem.directoryReads() * share;
+		}
+	}
+	
+	private long checkResult(final long val) {
+		if (val != expected) {
+			throw new IllegalArgumentException("Wrong result! Expected " + expected + ", received " + val);
+		}
+		return val;
+	}
+	
+	@Benchmark
+	public long nioFiles(final Calls calls) throws IOException {
+		fileSystem.resetCounts();
+		try (final Stream<Path> walk = Files.walk(path)) {
+			final long count = walk.filter(Files::isRegularFile).count();
+			calls.record(fileSystem);
+			return checkResult(count);
+		}
+	}
+	
+	@Benchmark
+	public long findWithAttributes(final Calls calls) throws IOException {
+		fileSystem.resetCounts();
+		try (final Stream<Path> find = Files.find(path, Integer.MAX_VALUE,
+				(file, attributes) -> !attributes.isDirectory())) {
+			final long count = find.count();
+			calls.record(fileSystem);
+			return checkResult(count);
+		}
+	}
+	
+	@Benchmark
+	public long fileVisitor(final Calls calls) throws IOException {
+		fileSystem.resetCounts();
+		final int[] count = new int[1];
+		Files.walkFileTree(path, new SimpleFileVisitor<>() {
+			@Override
+			public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+				++count[0];
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		calls.record(fileSystem);
+		return checkResult(count[0]);
+	}
+	
+	@Benchmark
+	public long secureDirectoryStream(final Calls calls) throws IOException {
+		fileSystem.resetCounts();
+		final int count = SecureDirectoryWalker.count(path);
+		calls.record(fileSystem);
+		return checkResult(count);
+	}
+	
+	@Benchmark
+	public long forkJoinPerDirectory(final Calls calls) throws IOException {
+		fileSystem.resetCounts();
+		final int count = ParallelWalker.countForkJoin(path);
+		calls.record(fileSystem);
+		return checkResult(count);
+	}
+}
@@ -0,0 +1,201 @@
+package file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Generated directory tree for the file walking benchmarks.
+ * <p>
+ * The tree has {@code depth} levels of {@code fanOut} subdirectories below the root, and the files are spread evenly
+ * over all directories. Files hold their number, or random bytes of a given size for the reading benchmarks. With
+ * symlinks, every tenth file gets a symbolic link next to it. Links only point to files, so walkers following links
+ * and walkers not following them find the same entries: every regular file and every link.
+ * <p>
+ * Trees are created below the directory given by the system property {@value #DIR_PROPERTY}, default is the temp
+ * directory. Large trees take a while to create; with {@value #KEEP_PROPERTY}{@code =true} they are kept and reused by
+ * later runs with the same shape.
+ */
+public final class FileTreeFixture implements Closeable {
+	
+	public static final String DIR_PROPERTY = "benchmarks.fileTree.dir";
+	public static final String KEEP_PROPERTY = "benchmarks.fileTree.keep";
+	
+	private static final int FILES_PER_LINK = 10;
+	private static final int WRITE_CHUNK = 1 << 20;
+	
+	private final Path root;
+	private final Path completeMarker;
+	private final List<Path> directories;
+	private final List<Path> files;
+	private final int expectedFiles;
+	
+	private FileTreeFixture(final Path root, final List<Path> directories, final List<Path> files,
+			final int expectedFiles) {
+		this.root = root;
+		this.directories = directories;
+		this.files = files;
+		this.expectedFiles = expectedFiles;
+		completeMarker = root.resolveSibling(root.getFileName() + ".complete");
+	}
+	
+	/**
+	 * Creates a tree, or reuses a kept one of the same shape.
+	 *
+	 * @param fileCount
+	 * 		number of regular files
+	 * @param depth
+	 * 		levels of subdirectories below the root
+	 * @param fanOut
+	 * 		subdirectories per directory
+	 * @param symlinks
+	 * 		whether to add links to every tenth file
+	 * @return fixture
+	 * @throws IOException
+	 * 		when creating the tree fails, e.g. because the file system does not support symbolic links
+	 */
+	public static FileTreeFixture create(final int fileCount, final int depth, final int fanOut,
+			final boolean symlinks) throws IOException {
+		return create(fileCount, depth, fanOut, symlinks, 0);
+	}
+	
+	/**
+	 * Creates a tree of files with random content, or reuses a kept one of the same shape.
+	 *
+	 * @param fileCount
+	 * 		number of regular files
+	 * @param depth
+	 * 		levels of subdirectories below the root
+	 * @param fanOut
+	 * 		subdirectories per directory
+	 * @param symlinks
+	 * 		whether to add links to every tenth file
+	 * @param fileSize
+	 * 		bytes per file, 0 writes the file number as content
+	 * @return fixture
+	 * @throws IOException
+	 * 		when creating the tree fails, e.g. because the file system does not support symbolic links
+	 */
+	public static FileTreeFixture create(final int fileCount, final int depth, final int fanOut,
+			final boolean symlinks, final long fileSize) throws IOException {
+		final Path base = Path.of(System.getProperty(DIR_PROPERTY, System.getProperty("java.io.tmpdir")));
+		final Path root = base.resolve("file-tree-" + fileCount + '-' + depth + '-' + fanOut +
+				(symlinks ? "-links" : "") + (fileSize > 0 ? "-" + fileSize + 'B' : ""));
+		
+		final List<Path> directories = new ArrayList<>();
+		directories.add(root);
+		for (int level = 0, from = 0; level < depth; ++level) {
+			final int to = directories.size();
+			for (int i = from; i < to; ++i) {
+				for (int d = 0; d < fanOut; ++d) {
+					directories.add(directories.get(i).resolve("dir" + d));
+				}
+			}
+			from = to;
+		}
+		final List<Path> files = new ArrayList<>(fileCount);
+		for (int i = 0; i < fileCount; ++i) {
+			files.add(directories.get(i % directories.size()).resolve("file" + i + ".txt"));
+		}
+		final int links = symlinks ? fileCount / FILES_PER_LINK : 0;
+		final FileTreeFixture fixture = new FileTreeFixture(root, directories, files, fileCount + links);
+		
+		if (Files.exists(fixture.completeMarker)) {
+			return fixture;
+		}
+		fixture.delete();
+		for (final Path directory : directories) {
+			Files.createDirectories(directory);
+		}
+		for (int i = 0; i < fileCount; ++i) {
+			final Path file = files.get(i);
+			if (fileSize > 0) {
+				writeRandom(file, i, fileSize);
+			} else {
+				Files.writeString(file, Integer.toString(i));
+			}
+			if (symlinks && i % FILES_PER_LINK == FILES_PER_LINK - 1) {
+				Files.createSymbolicLink(file.resolveSibling("link" + i + ".txt"), file.getFileName());
+			}
+		}
+		Files.createFile(fixture.completeMarker);
+		return fixture;
+	}
+	
+	private static void writeRandom(final Path file, final long seed, final long size) throws IOException {
+		final Random random = new Random(seed);
+		final byte[] chunk = new byte[(int) Math.min(size, WRITE_CHUNK)];
+		try (final OutputStream out = Files.newOutputStream(file)) {
+			for (long written = 0; written < size; written += chunk.length) {
+				random.nextBytes(chunk);
+				out.write(chunk, 0, (int) Math.min(chunk.length, size - written));
+			}
+		}
+	}
+	
+	public Path root() {
+		return root;
+	}
+	
+	/**
+	 * Returns the directories of the tree, root first, each level before the next.
+	 *
+	 * @return directories
+	 */
+	public List<Path> directories() {
+		return directories;
+	}
+	
+	/**
+	 * Returns the regular files of the tree, without links.
+	 *
+	 * @return files in the order of their numbers
+	 */
+	public List<Path> files() {
+		return files;
+	}
+	
+	/**
+	 * Returns the number of non-directory entries, i.e. regular files plus links.
+	 *
+	 * @return expected result of counting the files
+	 */
+	public int expectedFiles() {
+		return expectedFiles;
+	}
+	
+	/**
+	 * Deletes the tree unless {@value #KEEP_PROPERTY} is set.
+	 *
+	 * @throws IOException
+	 * 		when deleting fails
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!Boolean.getBoolean(KEEP_PROPERTY)) {
+			delete();
+		}
+	}
+	
+	private void delete() throws IOException {
+		Files.deleteIfExists(completeMarker);
+		if (!Files.exists(root)) {
+			return;
+		}
+		try (final Stream<Path> walk = Files.walk(root)) {
+			for (final Path path : (Iterable<Path>) walk.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(path);
+			}
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+}
@@ -0,0 +1,308 @@
+package file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cached listing of a directory tree that only re-reads changed directories.
+ * <p>
+ * Adding, removing or renaming an entry updates the modification time of its directory, so a refresh in scanning mode
+ * stats every known directory and re-lists those with a new time: one stat per directory instead of one per entry.
+ * Timestamps are coarse, e.g. a kernel tick on Linux, so a change right after a listing may keep the time. Directories
+ * modified within {@link #RACY_MILLIS} of their listing are therefore re-read once more by the next refresh.
+ * <p>
+ * In watching mode, every directory is registered with a {@link WatchService} and a refresh re-lists the directories
+ * with pending events without any stat. Events arrive asynchronously; {@link #awaitChanges} waits for them. An overflow
+ * of the event queue re-reads the whole tree.
+ * <p>
+ * Links are not followed and count as files, like {@link Files#walkFileTree}. Not thread-safe.
+ */
+public final class IncrementalFileIndex implements Closeable {
+	
+	/**
+	 * Directories modified this close to their listing may have changed again within the same timestamp.
+	 */
+	static final long RACY_MILLIS = 20;
+	
+	private final Path root;
+	private final WatchService watcher;
+	private final Map<Path, Directory> directories = new HashMap<>();
+	private final Set<Path> pending = new LinkedHashSet<>();
+	private boolean overflow;
+	private int fileCount;
+	
+	private IncrementalFileIndex(final Path root, final WatchService watcher) throws IOException {
+		this.root = root;
+		this.watcher = watcher;
+		index(root);
+	}
+	
+	/**
+	 * Indexes a tree, detecting changes by directory modification times.
+	 *
+	 * @param root
+	 * 		directory to index
+	 * @return index
+	 * @throws IOException
+	 * 		when listing the tree fails
+	 */
+	public static IncrementalFileIndex scanning(final Path root) throws IOException {
+		return new IncrementalFileIndex(root, null);
+	}
+	
+	/**
+	 * Indexes a tree, detecting changes by a {@link WatchService}.
+	 *
+	 * @param root
+	 * 		directory to index
+	 * @return index, to be closed to release the watch service
+	 * @throws IOException
+	 * 		when listing the tree or registering a directory fails
+	 */
+	public static IncrementalFileIndex watching(final Path root) throws IOException {
+		final WatchService watcher = root.getFileSystem().newWatchService();
+		try {
+			return new IncrementalFileIndex(root, watcher);
+		} catch (final IOException | RuntimeException e) {
+			watcher.close();
+			throw e;
+		}
+	}
+	
+	public int fileCount() {
+		return fileCount;
+	}
+	
+	public int directoryCount() {
+		return directories.size();
+	}
+	
+	public List<Path> files() {
+		final List<Path> files = new ArrayList<>(fileCount);
+		for (final Directory directory : directories.values()) {
+			files.addAll(directory.files);
+		}
+		return files;
+	}
+	
+	/**
+	 * Brings the index up to date.
+	 *
+	 * @return number of directories re-read
+	 * @throws IOException
+	 * 		when reading the tree fails
+	 */
+	public int refresh() throws IOException {
+		if (watcher == null) {
+			return refresh(root, directories.get(root));
+		}
+		drainEvents();
+		if (overflow) {
+			overflow = false;
+			pending.clear();
+			final int count = directories.size();
+			reindex();
+			return count;
+		}
+		int reread = 0;
+		for (final Path path : pending) {
+			final Directory directory = directories.get(path);
+			// removed together with a re-read parent
+			if (directory != null) {
+				relist(path, directory);
+				++reread;
+			}
+		}
+		pending.clear();
+		return reread;
+	}
+	
+	/**
+	 * Waits until at least the given number of directories have pending events. Only meaningful in watching mode.
+	 *
+	 * @param count
+	 * 		number of directories
+	 * @param timeout
+	 * 		maximum time to wait
+	 * @param unit
+	 * 		unit of the timeout
+	 * @return whether enough directories changed in time
+	 * @throws InterruptedIOException
+	 * 		when interrupted
+	 */
+	public boolean awaitChanges(final int count, final long timeout, final TimeUnit unit)
+			throws InterruptedIOException {
+		if (watcher == null) {
+			throw new IllegalStateException("Not watching");
+		}
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		try {
+			while (pending.size() < count && !overflow) {
+				final WatchKey key = watcher.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+				if (key == null) {
+					return false;
+				}
+				collect(key);
+			}
+			return true;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for changes");
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		if (watcher != null) {
+			watcher.close();
+		}
+	}
+	
+	private int refresh(final Path path, final Directory directory) throws IOException {
+		final BasicFileAttributes attributes;
+		try {
+			attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+		} catch (final NoSuchFileException e) {
+			// removed since the parent was checked, the next refresh drops it with the parent
+			return 0;
+		}
+		int reread = 0;
+		if (directory.racy || !attributes.lastModifiedTime().equals(directory.modified)) {
+			relist(path, directory);
+			++reread;
+		}
+		for (final Path subdirectory : directory.subdirectories) {
+			reread += refresh(subdirectory, directories.get(subdirectory));
+		}
+		return reread;
+	}
+	
+	private void drainEvents() {
+		WatchKey key;
+		while ((key = watcher.poll()) != null) {
+			collect(key);
+		}
+	}
+	
+	private void collect(final WatchKey key) {
+		for (final WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				overflow = true;
+			}
+		}
+		if (key.reset()) {
+			pending.add((Path) key.watchable());
+		}
+	}
+	
+	private void reindex() throws IOException {
+		for (final Directory directory : directories.values()) {
+			if (directory.key != null) {
+				directory.key.cancel();
+			}
+		}
+		directories.clear();
+		fileCount = 0;
+		index(root);
+	}
+	
+	private void index(final Path path) throws IOException {
+		final Directory directory = new Directory();
+		if (watcher != null) {
+			// registered before listing, so no change after the listing is missed
+			try {
+				directory.key = path.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_DELETE);
+			} catch (final NoSuchFileException e) {
+				// removed, the parent's re-read drops it
+				return;
+			}
+		}
+		directories.put(path, directory);
+		relist(path, directory);
+	}
+	
+	private void relist(final Path path, final Directory directory) throws IOException {
+		final long listedAt = System.currentTimeMillis();
+		final BasicFileAttributes attributes;
+		final List<Path> files = new ArrayList<>();
+		final List<Path> subdirectories = new ArrayList<>();
+		try {
+			attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+			try (final DirectoryStream<Path> entries = Files.newDirectoryStream(path)) {
+				for (final Path entry : entries) {
+					if (Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS)
+							.isDirectory()) {
+						subdirectories.add(entry);
+					} else {
+						files.add(entry);
+					}
+				}
+			}
+		} catch (final NoSuchFileException e) {
+			// removed, the parent's re-read drops it
+			return;
+		}
+		
+		fileCount += files.size() - directory.files.size();
+		directory.files = files;
+		directory.modified = attributes.lastModifiedTime();
+		directory.racy = listedAt - directory.modified.toMillis() < RACY_MILLIS;
+		
+		final Set<Path> current = new HashSet<>(subdirectories);
+		for (final Path old : directory.subdirectories) {
+			if (!current.contains(old)) {
+				remove(old);
+			}
+		}
+		final Set<Path> known = new HashSet<>(directory.subdirectories);
+		directory.subdirectories = subdirectories;
+		for (final Path subdirectory : subdirectories) {
+			if (!known.contains(subdirectory)) {
+				index(subdirectory);
+			}
+		}
+	}
+	
+	private void remove(final Path path) {
+		final Directory directory = directories.remove(path);
+		if (directory == null) {
+			return;
+		}
+		if (directory.key != null) {
+			directory.key.cancel();
+		}
+		fileCount -= directory.files.size();
+		for (final Path subdirectory : directory.subdirectories) {
+			remove(subdirectory);
+		}
+	}
+	
+	private static final class Directory {
+		private FileTime modified;
+		private boolean racy;
+		private List<Path> files = List.of();
+		private List<Path> subdirectories = List.of();
+		private WatchKey key;
+	}
+}
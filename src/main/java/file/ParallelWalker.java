@@ -0,0 +1,225 @@
+package file;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Directory walkers listing every directory in its own task, so independent directories are read concurrently instead
+ * of one after another like {@link Files#walk}, whose parallel streams only parallelize the processing of the entries.
+ * <p>
+ * Each entry costs one {@code readAttributes} call without following links, which answers both "is it a directory" and
+ * "is it a file" with a single stat. Like {@link Files#walkFileTree}, links are not followed and count as files.
+ */
+public final class ParallelWalker {
+	
+	private ParallelWalker() {
+		// no instances
+	}
+	
+	/**
+	 * Counts the files with one {@link RecursiveTask} per directory on the common ForkJoinPool.
+	 *
+	 * @param root
+	 * 		directory to walk
+	 * @return number of non-directory entries
+	 * @throws IOException
+	 * 		when listing a directory fails
+	 */
+	public static int countForkJoin(final Path root) throws IOException {
+		try {
+			return new CountTask(root).invoke();
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+	
+	/**
+	 * Lists the files with one {@link RecursiveTask} per directory on the common ForkJoinPool.
+	 *
+	 * @param root
+	 * 		directory to walk
+	 * @return non-directory entries
+	 * @throws IOException
+	 * 		when listing a directory fails
+	 */
+	public static List<Path> listForkJoin(final Path root) throws IOException {
+		try {
+			return new ListTask(root).invoke();
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+	
+	/**
+	 * Counts the files with one virtual thread per directory. Parents block on their children's futures, which only
+	 * unmounts the virtual thread.
+	 *
+	 * @param root
+	 * 		directory to walk
+	 * @return number of non-directory entries
+	 * @throws IOException
+	 * 		when listing a directory fails
+	 */
+	public static int countVirtualThreads(final Path root) throws IOException {
+		try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			return countVirtual(executor, root);
+		}
+	}
+	
+	/**
+	 * Lists the files with one virtual thread per directory.
+	 *
+	 * @param root
+	 * 		directory to walk
+	 * @return non-directory entries
+	 * @throws IOException
+	 * 		when listing a directory fails
+	 */
+	public static List<Path> listVirtualThreads(final Path root) throws IOException {
+		try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			return listVirtual(executor, root);
+		}
+	}
+	
+	private static int countVirtual(final ExecutorService executor, final Path directory) throws IOException {
+		final List<Path> directories = new ArrayList<>();
+		int count = list(directory, null, directories);
+		final List<Future<Integer>> children = new ArrayList<>(directories.size());
+		for (final Path child : directories) {
+			children.add(executor.submit(() -> countVirtual(executor, child)));
+		}
+		for (final Future<Integer> child : children) {
+			count += join(child);
+		}
+		return count;
+	}
+	
+	private static List<Path> listVirtual(final ExecutorService executor, final Path directory) throws IOException {
+		final List<Path> files = new ArrayList<>();
+		final List<Path> directories = new ArrayList<>();
+		list(directory, files, directories);
+		final List<Future<List<Path>>> children = new ArrayList<>(directories.size());
+		for (final Path child : directories) {
+			children.add(executor.submit(() -> listVirtual(executor, child)));
+		}
+		for (final Future<List<Path>> child : children) {
+			files.addAll(join(child));
+		}
+		return files;
+	}
+	
+	private static <T> T join(final Future<T> future) throws IOException {
+		try {
+			return future.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while walking");
+		} catch (final ExecutionException e) {
+			if (e.getCause() instanceof final IOException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof final RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+	
+	/**
+	 * Lists one directory.
+	 *
+	 * @param directory
+	 * 		directory to list
+	 * @param files
+	 * 		receives the non-directory entries, may be null when only counting
+	 * @param directories
+	 * 		receives the subdirectories
+	 * @return number of non-directory entries
+	 * @throws IOException
+	 * 		when listing fails
+	 */
+	private static int list(final Path directory, final List<Path> files, final List<Path> directories)
+			throws IOException {
+		int count = 0;
+		try (final DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+			for (final Path entry : entries) {
+				if (Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).isDirectory()) {
+					directories.add(entry);
+				} else {
+					++count;
+					if (files != null) {
+						files.add(entry);
+					}
+				}
+			}
+		}
+		return count;
+	}
+	
+	private static final class CountTask extends RecursiveTask<Integer> {
+		private final Path directory;
+		
+		CountTask(final Path directory) {
+			this.directory = directory;
+		}
+		
+		@Override
+		protected Integer compute() {
+			final List<Path> directories = new ArrayList<>();
+			int count;
+			try {
+				count = list(directory, null, directories);
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			final List<CountTask> children = new ArrayList<>(directories.size());
+			for (final Path child : directories) {
+				children.add((CountTask) new CountTask(child).fork());
+			}
+			for (final CountTask child : children) {
+				count += child.join();
+			}
+			return count;
+		}
+	}
+	
+	private static final class ListTask extends RecursiveTask<List<Path>> {
+		private final Path directory;
+		
+		ListTask(final Path directory) {
+			this.directory = directory;
+		}
+		
+		@Override
+		protected List<Path> compute() {
+			final List<Path> files = new ArrayList<>();
+			final List<Path> directories = new ArrayList<>();
+			try {
+				list(directory, files, directories);
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			final List<ListTask> children = new ArrayList<>(directories.size());
+			for (final Path child : directories) {
+				children.add((ListTask) new ListTask(child).fork());
+			}
+			for (final ListTask child : children) {
+				files.addAll(child.join());
+			}
+			return files;
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package file;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SecureDirectoryStream;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sequential walker statting every entry exactly once, relative to its open directory.
+ * <p>
+ * Where {@link Files#newDirectoryStream} returns a {@link SecureDirectoryStream} (Linux, macOS), attributes are read
+ * with {@code fstatat} on the directory's file descriptor and subdirectories are opened with {@code openat}, so the
+ * kernel does not resolve the full path per entry. Elsewhere, e.g. on Windows, every entry is read with one
+ * {@code readAttributes} on its path. Links are not followed and count as files.
+ */
+public final class SecureDirectoryWalker {
+	
+	private SecureDirectoryWalker() {
+		// no instances
+	}
+	
+	public static int count(final Path root) throws IOException {
+		return walk(root, null);
+	}
+	
+	public static List<Path> list(final Path root) throws IOException {
+		final List<Path> files = new ArrayList<>();
+		walk(root, files);
+		return files;
+	}
+	
+	private static int walk(final Path root, final List<Path> files) throws IOException {
+		try (final DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+			if (stream instanceof final SecureDirectoryStream<Path> secure) {
+				return walk(secure, files);
+			}
+			int count = 0;
+			for (final Path entry : stream) {
+				if (Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).isDirectory()) {
+					count += walk(entry, files);
+				} else {
+					++count;
+					if (files != null) {
+						files.add(entry);
+					}
+				}
+			}
+			return count;
+		}
+	}
+	
+	private static int walk(final SecureDirectoryStream<Path> directory, final List<Path> files) throws IOException {
+		int count = 0;
+		for (final Path entry : directory) {
+			final Path name = entry.getFileName();
+			final BasicFileAttributes attributes = directory
+					.getFileAttributeView(name, BasicFileAttributeView.class, LinkOption.NOFOLLOW_LINKS)
+					.readAttributes();
+			if (attributes.isDirectory()) {
+				try (final SecureDirectoryStream<Path> child = directory.newDirectoryStream(name,
+						LinkOption.NOFOLLOW_LINKS)) {
+					count += walk(child, files);
+				}
+			} else {
+				++count;
+				if (files != null) {
+					files.add(entry);
+				}
+			}
+		}
+		return count;
+	}
+}
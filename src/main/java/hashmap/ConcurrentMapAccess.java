@@ -0,0 +1,153 @@
+package hashmap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent reads and writes of a shared String map, like a session cache. Every thread picks get or put per
+ * operation, {@code writePercent} of them puts, so 5 is the read-heavy 95/5 mix, 50 balanced and 95 write-heavy. Writes
+ * update existing keys, so the map size stays constant.
+ * <p>
+ * Each nested class runs with a different thread count, from 1 to all cores, all threads sharing one map. The score is
+ * the sum over all threads.
+ */
+@Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G" })
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public abstract class ConcurrentMapAccess {
+	
+	/** number of keys, a power of two */
+	private static final int KEYS = 1024;
+	
+	@Param({ "CONCURRENT_HASH_MAP", "STRIPED_LOCK", "COPY_ON_WRITE", "LOCK_FREE" })
+	private Implementation implementation;
+	/** percentage of operations that are puts */
+	@Param({ "5", "50", "95" })
+	private int writePercent;
+	
+	private final String[] keys = new String[KEYS];
+	private final String[] values = new String[KEYS];
+	private ConcurrentStringMap map;
+	/** puts are the operations whose upper 16 cursor bits are below this */
+	private int writeThreshold;
+	
+	@Setup
+	public void setup() {
+		map = implementation.create(KEYS);
+		writeThreshold = writePercent * 65536 / 100;
+		for (int i = 0; i < KEYS; ++i) {
+			keys[i] = Integer.toString(i);
+			values[i] = UUID.randomUUID().toString();
+			map.put(keys[i], values[i]);
+		}
+		for (int i = 0; i < KEYS; ++i) {
+			// separate instance, so equals cannot succeed by identity
+			final String key = new String(keys[i]);
+			if (!values[i].equals(map.get(key))) {
+				throw new IllegalStateException("Wrong result! Expected " + values[i] + ", received " + map.get(key));
+			}
+		}
+	}
+	
+	@Benchmark
+	@Group("mixed")
+	@GroupThreads(1)
+	public String access(final KeyCursor cursor) {
+		final int x = cursor.next();
+		final int i = x & (KEYS - 1);
+		if (x >>> 16 < writeThreshold) {
+			map.put(keys[i], values[(i + 1) & (KEYS - 1)]);
+			return null;
+		}
+		return map.get(keys[i]);
+	}
+	
+	@Threads(1)
+	public static class Threads1 extends ConcurrentMapAccess {
+	}
+	
+	@Threads(2)
+	public static class Threads2 extends ConcurrentMapAccess {
+	}
+	
+	@Threads(4)
+	public static class Threads4 extends ConcurrentMapAccess {
+	}
+	
+	@Threads(8)
+	public static class Threads8 extends ConcurrentMapAccess {
+	}
+	
+	/** all available processors */
+	@Threads(Threads.MAX)
+	public static class ThreadsMax extends ConcurrentMapAccess {
+	}
+	
+	/**
+	 * Per-thread xorshift sequence, so threads do not share a random generator. The low bits of each value pick the
+	 * key, the upper 16 bits whether to write.
+	 */
+	@State(Scope.Thread)
+	public static class KeyCursor {
+		private int state;
+		
+		@Setup
+		public void setup() {
+			state = ThreadLocalRandom.current().nextInt() | 1;
+		}
+		
+		int next() {
+			int x = state;
+			x ^= x << 13;
+			x ^= x >>> 17;
+			x ^= x << 5;
+			state = x;
+			return x;
+		}
+	}
+	
+	public enum Implementation {
+		CONCURRENT_HASH_MAP, STRIPED_LOCK, COPY_ON_WRITE, LOCK_FREE;
+		
+		ConcurrentStringMap create(final int expectedSize) {
+			return switch (this) {
+				case CONCURRENT_HASH_MAP -> new ConcurrentStringMap() {
+					private final ConcurrentHashMap<String, String> map = new ConcurrentHashMap<>(expectedSize);
+					
+					@Override
+					public String get(final String key) {
+						return map.get(key);
+					}
+					
+					@Override
+					public void put(final String key, final String value) {
+						map.put(key, value);
+					}
+				};
+				case STRIPED_LOCK -> new StripedLockMap(16, expectedSize);
+				case COPY_ON_WRITE -> new CopyOnWriteMap();
+				case LOCK_FREE -> new LockFreeMap(expectedSize);
+			};
+		}
+	}
+}
@@ -0,0 +1,11 @@
+package hashmap;
+
+/**
+ * Minimal thread-safe String map for the implementations compared by {@link ConcurrentMapAccess}.
+ */
+interface ConcurrentStringMap {
+	
+	String get(String key);
+	
+	void put(String key, String value);
+}
@@ -0,0 +1,24 @@
+package hashmap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Readers use a volatile snapshot without locking; every write copies the snapshot under a lock and publishes the copy.
+ */
+final class CopyOnWriteMap implements ConcurrentStringMap {
+	
+	private volatile Map<String, String> snapshot = Map.of();
+	
+	@Override
+	public String get(final String key) {
+		return snapshot.get(key);
+	}
+	
+	@Override
+	public synchronized void put(final String key, final String value) {
+		final Map<String, String> copy = new HashMap<>(snapshot);
+		copy.put(key, value);
+		snapshot = copy;
+	}
+}
@@ -0,0 +1,38 @@
+package hashmap;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@link StringKeyLookup} over where the looked up keys sit in the insertion order and how many of them are absent.
+ * The full sweep runs with {@code -p N=1,4,10 -p MAX=8,64,1024 -p missPercent=0,10,50}.
+ */
+public class KeyDistributionLookup extends StringKeyLookup {
+	@Param({"4"})
+	private int N;
+	@Param({"1024"})
+	private int MAX;
+	@Param
+	private KeyDistribution distribution;
+	@Param({"0", "50"})
+	private int missPercent;
+	
+	@Override
+	int lookupsPerOperation() {
+		return N;
+	}
+	
+	@Override
+	int entries() {
+		return MAX;
+	}
+	
+	@Override
+	KeyDistribution distribution() {
+		return distribution;
+	}
+	
+	@Override
+	int missPercent() {
+		return missPercent;
+	}
+}
@@ -0,0 +1,51 @@
+package hashmap;
+
+/**
+ * Open addressing String map with linear probing over flat key and value arrays. Capacity is fixed at construction and
+ * kept at most half full; there is no removal.
+ */
+final class LinearProbingMap {
+	
+	private final String[] keys;
+	private final String[] values;
+	private final int mask;
+	private int size;
+	
+	LinearProbingMap(final int expectedSize) {
+		final int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+		keys = new String[capacity];
+		values = new String[capacity];
+		mask = capacity - 1;
+	}
+	
+	static int hash(final String key) {
+		final int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+	
+	void put(final String key, final String value) {
+		int i = hash(key) & mask;
+		for (String k; (k = keys[i]) != null; i = (i + 1) & mask) {
+			if (k.equals(key)) {
+				values[i] = value;
+				return;
+			}
+		}
+		if (size >= keys.length >>> 1) {
+			throw new IllegalStateException("Capacity exceeded");
+		}
+		keys[i] = key;
+		values[i] = value;
+		++size;
+	}
+	
+	String get(final String key) {
+		int i = hash(key) & mask;
+		for (String k; (k = keys[i]) != null; i = (i + 1) & mask) {
+			if (k.equals(key)) {
+				return values[i];
+			}
+		}
+		return null;
+	}
+}
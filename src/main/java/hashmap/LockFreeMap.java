@@ -0,0 +1,47 @@
+package hashmap;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free open addressing String map with linear probing. A key claims its slot by CAS and is never removed, values
+ * are published with volatile writes. Capacity is fixed at twice the expected size; there is no resizing.
+ * <p>
+ * A reader racing with the first insert of a key may see the key before its value and then reports it as absent.
+ */
+final class LockFreeMap implements ConcurrentStringMap {
+	
+	private final AtomicReferenceArray<String> keys;
+	private final AtomicReferenceArray<String> values;
+	private final int mask;
+	
+	LockFreeMap(final int expectedSize) {
+		final int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+		keys = new AtomicReferenceArray<>(capacity);
+		values = new AtomicReferenceArray<>(capacity);
+		mask = capacity - 1;
+	}
+	
+	@Override
+	public String get(final String key) {
+		int i = LinearProbingMap.hash(key) & mask;
+		for (String k; (k = keys.get(i)) != null; i = (i + 1) & mask) {
+			if (k.equals(key)) {
+				return values.get(i);
+			}
+		}
+		return null;
+	}
+	
+	@Override
+	public void put(final String key, final String value) {
+		int i = LinearProbingMap.hash(key) & mask;
+		for (int probes = 0; probes <= mask; ++probes, i = (i + 1) & mask) {
+			final String k = keys.get(i);
+			if (k == null ? keys.compareAndSet(i, null, key) || key.equals(keys.get(i)) : k.equals(key)) {
+				values.set(i, value);
+				return;
+			}
+		}
+		throw new IllegalStateException("Capacity exceeded");
+	}
+}
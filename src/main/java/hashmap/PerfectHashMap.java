@@ -0,0 +1,103 @@
+package hashmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable String map with a collision-free hash for a key set fixed at construction, built by hash and displace: the
+ * keys are split into small buckets, and each bucket gets a displacement under which all of its keys hit free slots.
+ * A lookup is two hash steps, one displacement load and one equals check; keys outside the set land on an arbitrary
+ * slot and fail the check.
+ */
+final class PerfectHashMap {
+	
+	private static final int MAX_DISPLACEMENT = 1 << 20;
+	
+	private final String[] keys;
+	private final String[] values;
+	private final int[] displacements;
+	private final int bucketShift;
+	private final int mask;
+	
+	PerfectHashMap(final Map<String, String> entries) {
+		final int size = Math.max(2, entries.size());
+		final int capacity = Integer.highestOneBit(size * 2 - 1) << 1;
+		final int bucketCount = Math.max(2, capacity >>> 2);
+		keys = new String[capacity];
+		values = new String[capacity];
+		displacements = new int[bucketCount];
+		bucketShift = Integer.numberOfLeadingZeros(bucketCount) + 1;
+		mask = capacity - 1;
+		
+		final List<List<String>> buckets = new ArrayList<>(bucketCount);
+		for (int i = 0; i < bucketCount; ++i) {
+			buckets.add(new ArrayList<>());
+		}
+		for (final String key : entries.keySet()) {
+			buckets.get(bucket(key.hashCode())).add(key);
+		}
+		// place the largest buckets first while the table is still empty
+		final List<Integer> order = new ArrayList<>(bucketCount);
+		for (int i = 0; i < bucketCount; ++i) {
+			order.add(i);
+		}
+		order.sort((a, b) -> Integer.compare(buckets.get(b).size(), buckets.get(a).size()));
+		
+		final int[] slots = new int[size];
+		for (final int b : order) {
+			final List<String> bucket = buckets.get(b);
+			if (bucket.isEmpty()) {
+				break;
+			}
+			displacements[b] = findDisplacement(bucket, slots);
+			for (int i = 0, len = bucket.size(); i < len; ++i) {
+				keys[slots[i]] = bucket.get(i);
+				values[slots[i]] = entries.get(bucket.get(i));
+			}
+		}
+	}
+	
+	private int findDisplacement(final List<String> bucket, final int[] slots) {
+		next:
+		for (int displacement = 0; displacement < MAX_DISPLACEMENT; ++displacement) {
+			for (int i = 0, len = bucket.size(); i < len; ++i) {
+				final int slot = slot(bucket.get(i).hashCode(), displacement);
+				if (keys[slot] != null) {
+					continue next;
+				}
+				for (int j = 0; j < i; ++j) {
+					if (slots[j] == slot) {
+						continue next;
+					}
+				}
+				slots[i] = slot;
+			}
+			return displacement;
+		}
+		throw new IllegalArgumentException("No perfect hash found, keys with equal hash codes? " + bucket);
+	}
+	
+	private int bucket(final int hash) {
+		return (hash * 0x9E3779B9) >>> bucketShift;
+	}
+	
+	/**
+	 * MurmurHash3 finalizer of the displaced hash.
+	 */
+	private int slot(final int hash, final int displacement) {
+		int h = hash ^ displacement * 0x9E3779B9;
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		h ^= h >>> 16;
+		return h & mask;
+	}
+	
+	String get(final String key) {
+		final int hash = key.hashCode();
+		final int slot = slot(hash, displacements[bucket(hash)]);
+		return key.equals(keys[slot]) ? values[slot] : null;
+	}
+}
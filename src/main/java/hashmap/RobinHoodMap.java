@@ -0,0 +1,71 @@
+package hashmap;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing String map with Robin Hood hashing: an insert takes the slot of any entry that is closer to its home
+ * slot than the new one, keeping probe lengths even. A lookup stops as soon as it would be farther from home than the
+ * entry in the current slot. Capacity is fixed at construction and kept at most half full; there is no removal.
+ */
+final class RobinHoodMap {
+	
+	private static final int EMPTY = -1;
+	
+	private final String[] keys;
+	private final String[] values;
+	/** distance of each entry from its home slot, EMPTY for free slots */
+	private final int[] distances;
+	private final int mask;
+	private int size;
+	
+	RobinHoodMap(final int expectedSize) {
+		final int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+		keys = new String[capacity];
+		values = new String[capacity];
+		distances = new int[capacity];
+		Arrays.fill(distances, EMPTY);
+		mask = capacity - 1;
+	}
+	
+	void put(String key, String value) {
+		int i = LinearProbingMap.hash(key) & mask;
+		for (int distance = 0; ; ++distance, i = (i + 1) & mask) {
+			if (distances[i] == EMPTY) {
+				if (size >= keys.length >>> 1) {
+					throw new IllegalStateException("Capacity exceeded");
+				}
+				keys[i] = key;
+				values[i] = value;
+				distances[i] = distance;
+				++size;
+				return;
+			}
+			if (distances[i] == distance && keys[i].equals(key)) {
+				values[i] = value;
+				return;
+			}
+			if (distances[i] < distance) {
+				// the resident is richer: take its slot and continue inserting the resident
+				final String residentKey = keys[i];
+				final String residentValue = values[i];
+				final int residentDistance = distances[i];
+				keys[i] = key;
+				values[i] = value;
+				distances[i] = distance;
+				key = residentKey;
+				value = residentValue;
+				distance = residentDistance;
+			}
+		}
+	}
+	
+	String get(final String key) {
+		int i = LinearProbingMap.hash(key) & mask;
+		for (int distance = 0; distance <= distances[i]; ++distance, i = (i + 1) & mask) {
+			if (distances[i] == distance && keys[i].equals(key)) {
+				return values[i];
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,27 @@
+package hashmap;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable String map over a sorted key array searched by binary search, with values in a parallel array.
+ */
+final class SortedArrayMap {
+	
+	private final String[] keys;
+	private final String[] values;
+	
+	SortedArrayMap(final Map<String, String> entries) {
+		keys = entries.keySet().toArray(new String[0]);
+		Arrays.sort(keys);
+		values = new String[keys.length];
+		for (int i = 0; i < keys.length; ++i) {
+			values[i] = entries.get(keys[i]);
+		}
+	}
+	
+	String get(final String key) {
+		final int i = Arrays.binarySearch(keys, key);
+		return i >= 0 ? values[i] : null;
+	}
+}
@@ -0,0 +1,256 @@
+package hashmap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of String keys in a list and in several map implementations. The subclasses set the number of lookups per
+ * operation, the number of entries and which keys are looked up.
+ */
+@Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G" })
+@Threads(1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public abstract class StringKeyLookup {
+	/** size of the precomputed lookup key ring, a power of two */
+	private static final int LOOKUPS = 4096;
+	private List<String> listKey;
+	private List<String> listValue;
+	private Map<String, String> map;
+	private LinearProbingMap linearProbingMap;
+	private RobinHoodMap robinHoodMap;
+	private PerfectHashMap perfectHashMap;
+	private SortedArrayMap sortedArrayMap;
+	/** lookups per operation */
+	private int N;
+	/** number of entries in each structure */
+	private int MAX;
+	private KeyDistribution distribution;
+	private int missPercent;
+	/**
+	 * lookup keys, separate String instances from the stored keys so equals cannot succeed by identity; each operation
+	 * takes the next N
+	 */
+	private String[] lookups;
+	private int cursor;
+	
+	/** lookups per operation */
+	abstract int lookupsPerOperation();
+	
+	/** number of entries in each structure */
+	abstract int entries();
+	
+	/** which keys are looked up */
+	abstract KeyDistribution distribution();
+	
+	/** share of lookups for absent keys in percent */
+	abstract int missPercent();
+	
+	@Setup
+	public void setup() {
+		N = lookupsPerOperation();
+		MAX = entries();
+		distribution = distribution();
+		missPercent = missPercent();
+		listKey = new ArrayList<>(MAX);
+		listValue = new ArrayList<>(MAX);
+		map = HashMap.newHashMap(MAX);
+		linearProbingMap = new LinearProbingMap(MAX);
+		robinHoodMap = new RobinHoodMap(MAX);
+		for (int i = 0; i < MAX; ++i) {
+			String key = Integer.toString(i);
+			String val = UUID.randomUUID().toString();
+			listKey.add(key);
+			listValue.add(val);
+			map.put(key, val);
+			linearProbingMap.put(key, val);
+			robinHoodMap.put(key, val);
+		}
+		perfectHashMap = new PerfectHashMap(map);
+		sortedArrayMap = new SortedArrayMap(map);
+		
+		for (int i = 0; i < MAX; ++i) {
+			String key = Integer.toString(i);
+			String expected = map.get(key);
+			checkResult(expected, listSearch(key));
+			checkResult(expected, linearProbingMap.get(key));
+			checkResult(expected, robinHoodMap.get(key));
+			checkResult(expected, perfectHashMap.get(key));
+			checkResult(expected, sortedArrayMap.get(key));
+		}
+		String missing = Integer.toString(MAX);
+		checkResult(null, linearProbingMap.get(missing));
+		checkResult(null, robinHoodMap.get(missing));
+		checkResult(null, perfectHashMap.get(missing));
+		checkResult(null, sortedArrayMap.get(missing));
+		
+		lookups = createLookups();
+		for (String key : lookups) {
+			String expected = map.get(key);
+			checkResult(expected, listSearch(key));
+			checkResult(expected, linearProbingMap.get(key));
+			checkResult(expected, robinHoodMap.get(key));
+			checkResult(expected, perfectHashMap.get(key));
+			checkResult(expected, sortedArrayMap.get(key));
+		}
+	}
+	
+	private String[] createLookups() {
+		final Random random = new Random(42);
+		final int[] zipfRankToKey = shuffledIndices(random);
+		final double[] zipfCumulative = new double[MAX];
+		double sum = 0;
+		for (int rank = 0; rank < MAX; ++rank) {
+			sum += 1.0 / (rank + 1);
+			zipfCumulative[rank] = sum;
+		}
+		
+		final String[] keys = new String[LOOKUPS];
+		final int window = Math.min(N, MAX);
+		for (int j = 0; j < LOOKUPS; ++j) {
+			if (random.nextInt(100) < missPercent) {
+				keys[j] = Integer.toString(MAX + random.nextInt(MAX));
+				continue;
+			}
+			final int index = switch (distribution) {
+				case FRONT -> j % window;
+				case MIDDLE -> (MAX - window) / 2 + j % window;
+				case TAIL -> MAX - window + j % window;
+				case RANDOM -> random.nextInt(MAX);
+				case ZIPF -> {
+					int rank = Arrays.binarySearch(zipfCumulative, random.nextDouble() * sum);
+					yield zipfRankToKey[Math.min(MAX - 1, rank < 0 ? -rank - 1 : rank)];
+				}
+			};
+			keys[j] = Integer.toString(index);
+		}
+		return keys;
+	}
+	
+	/** popular Zipf ranks are spread over the key range instead of sitting at the front */
+	private int[] shuffledIndices(final Random random) {
+		final int[] indices = new int[MAX];
+		for (int i = 0; i < MAX; ++i) {
+			indices[i] = i;
+		}
+		for (int i = MAX - 1; i > 0; --i) {
+			final int j = random.nextInt(i + 1);
+			final int tmp = indices[i];
+			indices[i] = indices[j];
+			indices[j] = tmp;
+		}
+		return indices;
+	}
+	
+	/** advances the lookup ring by N and returns the start of this operation's keys */
+	private int nextLookups() {
+		final int start = cursor;
+		cursor = (start + N) & (LOOKUPS - 1);
+		return start;
+	}
+	
+	private static void checkResult(final String expected, final String val) {
+		if (!Objects.equals(expected, val)) {
+			throw new IllegalStateException("Wrong result! Expected " + expected + ", received " + val);
+		}
+	}
+	
+	@Benchmark
+	public void arrayListSearch(final Blackhole bh) {
+		for (int i = 0, start = nextLookups(); i < N; ++i) {
+			String key = lookups[(start + i) & (LOOKUPS - 1)];
+			bh.consume(listSearch(key));
+			bh.consume(i);
+		}
+	}
+	
+	private String listSearch(String key) {
+		for (int i = 0, n = listKey.size(); i < n; ++i) {
+			if (key.equals(listKey.get(i))) {
+				return listValue.get(i);
+			}
+		}
+		return null;
+	}
+	
+	@Benchmark
+	public void mapAccess(final Blackhole bh) {
+		for (int i = 0, start = nextLookups(); i < N; ++i) {
+			String key = lookups[(start + i) & (LOOKUPS - 1)];
+			bh.consume(map.get(key));
+			bh.consume(i);
+		}
+	}
+	
+	@Benchmark
+	public void linearProbing(final Blackhole bh) {
+		for (int i = 0, start = nextLookups(); i < N; ++i) {
+			String key = lookups[(start + i) & (LOOKUPS - 1)];
+			bh.consume(linearProbingMap.get(key));
+			bh.consume(i);
+		}
+	}
+	
+	@Benchmark
+	public void robinHood(final Blackhole bh) {
+		for (int i = 0, start = nextLookups(); i < N; ++i) {
+			String key = lookups[(start + i) & (LOOKUPS - 1)];
+			bh.consume(robinHoodMap.get(key));
+			bh.consume(i);
+		}
+	}
+	
+	@Benchmark
+	public void perfectHash(final Blackhole bh) {
+		for (int i = 0, start = nextLookups(); i < N; ++i) {
+			String key = lookups[(start + i) & (LOOKUPS - 1)];
+			bh.consume(perfectHashMap.get(key));
+			bh.consume(i);
+		}
+	}
+	
+	@Benchmark
+	public void sortedArray(final Blackhole bh) {
+		for (int i = 0, start = nextLookups(); i < N; ++i) {
+			String key = lookups[(start + i) & (LOOKUPS - 1)];
+			bh.consume(sortedArrayMap.get(key));
+			bh.consume(i);
+		}
+	}
+	
+	public enum KeyDistribution {
+		/** the first N keys, the original access pattern */
+		FRONT,
+		/** N keys from the middle of the insertion order */
+		MIDDLE,
+		/** the last N keys */
+		TAIL,
+		/** uniformly random keys */
+		RANDOM,
+		/** Zipf distributed popularity with s = 1 */
+		ZIPF
+	}
+}
@@ -0,0 +1,46 @@
+package hashmap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HashMaps guarded by one lock per stripe; the stripe is chosen by the key's hash, so threads only contend when their
+ * keys share a stripe. The stripe comes from the high bits of a multiplicative rehash, as the maps index their buckets
+ * with the low bits; selecting by those would leave most buckets of each stripe empty.
+ */
+final class StripedLockMap implements ConcurrentStringMap {
+	
+	private final Map<String, String>[] stripes;
+	private final int shift;
+	
+	@SuppressWarnings("unchecked")
+	StripedLockMap(final int stripeCount, final int expectedSize) {
+		final int count = Integer.highestOneBit(Math.max(1, stripeCount * 2 - 1));
+		stripes = new Map[count];
+		for (int i = 0; i < count; ++i) {
+			stripes[i] = HashMap.newHashMap(expectedSize / count + 1);
+		}
+		shift = 32 - Integer.numberOfTrailingZeros(count);
+	}
+	
+	private Map<String, String> stripe(final String key) {
+		// as long, so a single stripe shifts out all 32 bits
+		return stripes[(int) ((LinearProbingMap.hash(key) * 0x9E3779B9 & 0xFFFF_FFFFL) >>> shift)];
+	}
+	
+	@Override
+	public String get(final String key) {
+		final Map<String, String> stripe = stripe(key);
+		synchronized (stripe) {
+			return stripe.get(key);
+		}
+	}
+	
+	@Override
+	public void put(final String key, final String value) {
+		final Map<String, String> stripe = stripe(key);
+		synchronized (stripe) {
+			stripe.put(key, value);
+		}
+	}
+}
@@ -1,93 +1,42 @@
 package hashmap;
 
-import org.openjdk.jmh.annotations.Benchmark;
-import org.openjdk.jmh.annotations.BenchmarkMode;
-import org.openjdk.jmh.annotations.Fork;
-import org.openjdk.jmh.annotations.Measurement;
-import org.openjdk.jmh.annotations.Mode;
-import org.openjdk.jmh.annotations.OutputTimeUnit;
 import org.openjdk.jmh.annotations.Param;
-import org.openjdk.jmh.annotations.Scope;
-import org.openjdk.jmh.annotations.Setup;
-import org.openjdk.jmh.annotations.State;
-import org.openjdk.jmh.annotations.Threads;
-import org.openjdk.jmh.annotations.Warmup;
-import org.openjdk.jmh.infra.Blackhole;
-import org.openjdk.jmh.runner.Runner;
-import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
-import org.openjdk.jmh.runner.options.OptionsBuilder;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.TimeUnit;
-
-@Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
-@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
-@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G" })
-@Threads(1)
-@BenchmarkMode(Mode.Throughput)
-@OutputTimeUnit(TimeUnit.SECONDS)
-@State(Scope.Benchmark)
-public class VersusArrayListForStringKey {
-	private static final int MAX = 1024;
-	private final List<String> listKey = new ArrayList<>(MAX);
-	private final List<String> listValue = new ArrayList<>(MAX);
-	private final Map<String, String> map = HashMap.newHashMap(MAX);
+/**
+ * Whether a list search beats a map for few lookups: {@code N} lookups of the first keys among {@code MAX} entries, all
+ * present. Smaller maps run with {@code -p MAX=8,64,1024}; other key distributions and absent keys are covered by
+ * {@link KeyDistributionLookup}.
+ */
+public class VersusArrayListForStringKey extends StringKeyLookup {
 	@Param({"1", "2", "3", "4", "5", "10"})
 	private int N;
+	@Param({"1024"})
+	private int MAX;
 	
-	public static void main(final String[] args) throws RunnerException {
-		final Options opt =
-				new OptionsBuilder().include(".*" + VersusArrayListForStringKey.class.getSimpleName() + ".*")
-						.forks(1)
-						.build();
-		new Runner(opt).run();
-	}
-	
-	@Setup
-	public void setup() {
-		for (int i = 0; i < MAX; ++i) {
-			String key = Integer.toString(i);
-			String val = UUID.randomUUID().toString();
-			listKey.add(key);
-			listValue.add(val);
-			map.put(key, val);
-		}
+	@Override
+	int lookupsPerOperation() {
+		return N;
 	}
 	
-	@Benchmark
-	public void arrayListSearch(final Blackhole bh) {
-		for (int i = 0; i < N; ++i) {
-			String key = Integer.toString(i);
-			bh.consume(listSearch(key));
-			bh.consume(i);
-		}
+	@Override
+	int entries() {
+		return MAX;
 	}
 	
-	private String listSearch(String key) {
-		for (int i = 0, n = listKey.size(); i < n; ++i) {
-			if (key.equals(listKey.get(i))) {
-				return listValue.get(i);
-			}
-		}
-		return null;
+	@Override
+	KeyDistribution distribution() {
+		return KeyDistribution.FRONT;
 	}
 	
-	@Benchmark
-	public void mapAccess(final Blackhole bh) {
-		for (int i = 0; i < N; ++i) {
-			String key = Integer.toString(i);
-			bh.consume(map.get(key));
-			bh.consume(i);
-		}
+	@Override
+	int missPercent() {
+		return 0;
 	}
-	
 }
 /*
+Before the lookup keys were precomputed: each lookup built its key with Integer.toString inside the measured loop,
+and only arrayListSearch and mapAccess existed.
+
 JDK 21.0.2 - desktop 4+4 cores - balanced cpu
 Benchmark                                    (N)   Mode  Cnt          Score          Error  Units
 VersusArrayListForStringKey.arrayListSearch    1  thrpt    3  124319301,966 ± 20728062,194  ops/s
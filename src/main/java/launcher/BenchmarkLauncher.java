@@ -0,0 +1,182 @@
+package launcher;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import results.RegressionGate;
+import results.ResultDiff;
+import results.ResultStore;
+import results.RunEnvironment;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Single entry point of the packaged benchmarks jar.
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar [suite...] [JMH options]}
+ * <p>
+ * A suite is a benchmark package like {@code string} or {@code random}, or a fully qualified benchmark class like
+ * {@code list.ToArray}. All suites are run within one launch. Without any suite, every benchmark is run. Everything
+ * starting at the first argument beginning with {@code -} is passed through to JMH, e.g. {@code -f 1 -wi 1 -prof gc}.
+ * <p>
+ * Results are written to the {@link ResultStore}. The launcher's own options may appear anywhere:
+ * <ul>
+ *     <li>{@code --results-dir <dir>} root of the result store, default {@code results}</li>
+ *     <li>{@code --power-profile <name>} power profile to key the results with, default {@code default}</li>
+ *     <li>{@code --commit <id>} commit to key the results with, default is asking git</li>
+ *     <li>{@code --no-store} does not write results</li>
+ *     <li>{@code --gc-profile} runs the suites once per collector in {@link #COLLECTORS} with the {@code gc} profiler,
+ *     which adds allocated bytes per operation ({@code gc.alloc.rate.norm}) to the results. Combine it with
+ *     {@code -t} to measure allocation by several threads.</li>
+ * </ul>
+ * {@code java -jar target/benchmarks.jar diff <baseline> <candidate>} compares two stored runs, see
+ * {@link ResultDiff}. {@code compare} instead tests them for significant slowdowns and exits with status 1 on
+ * regressions, see {@link RegressionGate}.
+ */
+public final class BenchmarkLauncher {
+	
+	/**
+	 * Collectors of {@code --gc-profile}. ZGC is generational only since JDK 24.
+	 */
+	private static final List<String> COLLECTORS = List.of("-XX:+UseG1GC", "-XX:+UseZGC", "-XX:+UseParallelGC");
+	
+	private BenchmarkLauncher() {
+		// no instances
+	}
+	
+	public static void main(final String[] args) throws IOException, RunnerException {
+		if (args.length > 0 && "diff".equals(args[0])) {
+			ResultDiff.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+		if (args.length > 0 && "compare".equals(args[0])) {
+			RegressionGate.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+		
+		Path resultsDir = Path.of("results");
+		String powerProfile = "default";
+		String commit = null;
+		boolean store = true;
+		boolean gcProfile = false;
+		final List<String> remaining = new ArrayList<>(args.length);
+		try {
+			for (int i = 0; i < args.length; ++i) {
+				switch (args[i]) {
+					case "--results-dir" -> resultsDir = Path.of(optionValue(args, ++i));
+					case "--power-profile" -> powerProfile = optionValue(args, ++i);
+					case "--commit" -> commit = optionValue(args, ++i);
+					case "--no-store" -> store = false;
+					case "--gc-profile" -> gcProfile = true;
+					default -> remaining.add(args[i]);
+				}
+			}
+		} catch (final IllegalArgumentException e) {
+			System.err.println("Error parsing command line:");
+			System.err.println(" " + e.getMessage());
+			System.exit(1);
+			return;
+		}
+		
+		int firstOption = 0;
+		while (firstOption < remaining.size() && !remaining.get(firstOption).startsWith("-")) {
+			++firstOption;
+		}
+		
+		final CommandLineOptions cmdOptions;
+		try {
+			cmdOptions =
+					new CommandLineOptions(remaining.subList(firstOption, remaining.size()).toArray(String[]::new));
+		} catch (final CommandLineOptionException e) {
+			System.err.println("Error parsing command line:");
+			System.err.println(" " + e.getMessage());
+			System.exit(1);
+			return;
+		}
+		
+		if (cmdOptions.shouldHelp()) {
+			cmdOptions.showHelp();
+			return;
+		}
+		if (cmdOptions.shouldListProfilers()) {
+			cmdOptions.listProfilers();
+			return;
+		}
+		if (cmdOptions.shouldListResultFormats()) {
+			cmdOptions.listResultFormats();
+			return;
+		}
+		
+		final List<String> suites = remaining.subList(0, firstOption);
+		final Runner runner = new Runner(options(cmdOptions, suites).build());
+		
+		if (cmdOptions.shouldList()) {
+			runner.list();
+			return;
+		}
+		if (cmdOptions.shouldListWithParams()) {
+			runner.listWithParams(cmdOptions);
+			return;
+		}
+		final Collection<RunResult> results;
+		if (gcProfile) {
+			results = new ArrayList<>();
+			final List<String> jvmArgsAppend = new ArrayList<>(cmdOptions.getJvmArgsAppend().orElse(List.of()));
+			for (final String collector : COLLECTORS) {
+				jvmArgsAppend.add(collector);
+				results.addAll(new Runner(options(cmdOptions, suites).addProfiler(GCProfiler.class)
+						.jvmArgsAppend(jvmArgsAppend.toArray(String[]::new))
+						.build()).run());
+				jvmArgsAppend.removeLast();
+			}
+		} else {
+			results = runner.run();
+		}
+		
+		if (store && !results.isEmpty()) {
+			final String jdk = results.iterator().next().getParams().getJdkVersion();
+			final RunEnvironment environment = RunEnvironment.detect(jdk, powerProfile, commit);
+			final Path file = new ResultStore(resultsDir).write(environment, results);
+			System.out.println("Results stored in " + file.toAbsolutePath());
+		}
+	}
+	
+	private static ChainedOptionsBuilder options(final CommandLineOptions cmdOptions, final List<String> suites) {
+		final ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmdOptions);
+		for (final String suite : suites) {
+			builder.include(suiteRegex(suite));
+		}
+		return builder;
+	}
+	
+	private static String optionValue(final String[] args, final int index) {
+		if (index >= args.length) {
+			throw new IllegalArgumentException("Missing value for option " + args[index - 1]);
+		}
+		return args[index];
+	}
+	
+	/**
+	 * Returns the include regex for a suite. Benchmarks are named {@code package.Class.method}, so matching the
+	 * prefix followed by a dot selects a whole package or class without catching e.g. {@code list.ToArrayFoo}.
+	 *
+	 * @param suite
+	 * 		package or fully qualified class name
+	 * @return include regex
+	 */
+	private static String suiteRegex(final String suite) {
+		return "^" + Pattern.quote(suite) + "\\.";
+	}
+}
@@ -13,65 +13,97 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
-import org.openjdk.jmh.runner.Runner;
-import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
-import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
 @Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
-@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G" })
+@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G", "--add-modules=jdk.incubator.vector" })
 @Threads(1)
 @BenchmarkMode(Mode.Throughput)
 @OutputTimeUnit(TimeUnit.SECONDS)
 @State(Scope.Benchmark)
 public class FilteredList {
 	
-	@Param({ "1", "10", "100", "10000000" })
+	/** the original sizes run with {@code -p N=1,10,100,10000000} */
+	@Param({ "100", "10000000" })
 	private int N;
+	/**
+	 * percentage of values passing the filter, about 2% like the production filters and 50% for the original data; the
+	 * full sweep runs with {@code -p selectivity=0,1,2,10,50,90,100 -p pattern=PERIODIC,RANDOM,CLUSTERED}
+	 */
+	@Param({ "2", "50" })
+	private int selectivity;
+	/** how the passing values are spread over the list; {@code PERIODIC} at 50% is the original alternating data */
+	@Param({ "PERIODIC", "RANDOM" })
+	private MatchPattern pattern;
+	@Param({ "CHEAP", "EXPENSIVE" })
+	private PredicateCost predicate;
+	/** scramble rounds of the predicate, see {@link IntFilter#scramble(int, int)} */
+	private int rounds;
 	private List<Integer> DATA_FOR_TESTING;
-	
-	public static void main(final String[] args) throws RunnerException {
-		final Options opt =
-				new OptionsBuilder().include(".*" + FilteredList.class.getSimpleName() + ".*").forks(1).build();
-		new Runner(opt).run();
-	}
+	private IntList INT_DATA_FOR_TESTING;
 	
 	@Setup
 	public void setup() {
+		rounds = predicate.rounds;
 		DATA_FOR_TESTING = createData();
+		INT_DATA_FOR_TESTING = new IntList(N);
+		for (final Integer v : DATA_FOR_TESTING) {
+			INT_DATA_FOR_TESTING.add(v);
+		}
+		
+		final int[] expected = DATA_FOR_TESTING.stream().filter(v -> v % 2 == 0).mapToInt(v -> v).toArray();
+		checkResult(expected, IntFilter.evenBranchy(INT_DATA_FOR_TESTING, rounds));
+		checkResult(expected, IntFilter.evenBranchless(INT_DATA_FOR_TESTING, rounds));
+		checkResult(expected, IntFilter.evenVector(INT_DATA_FOR_TESTING, rounds));
+	}
+	
+	private static void checkResult(final int[] expected, final IntList val) {
+		if (!Arrays.equals(expected, val.toArray())) {
+			throw new IllegalStateException("Wrong result! Expected " + expected.length + " values, received " +
+					val.size());
+		}
 	}
 	
+	/**
+	 * Creates ascending values where the filter's parity test decides the match: a match is stored as 2i, a non-match
+	 * as 2i+1.
+	 */
 	private List<Integer> createData() {
+		final Random random = new Random(42);
 		final List<Integer> data = new ArrayList<>(N);
 		for (int i = 0; i < N; ++i) {
-			data.add(i);
+			data.add(2 * i + (pattern.matches(i, selectivity, random) ? 0 : 1));
 		}
 		return data;
 	}
 	
 	@Benchmark
 	public void streamCollectorToList(final Blackhole bh) {
-		final List<Integer> filteredList =
-				DATA_FOR_TESTING.stream().filter(v -> v % 2 == 0).collect(Collectors.toList());
+		final List<Integer> filteredList = DATA_FOR_TESTING.stream()
+				.filter(v -> IntFilter.scramble(v, rounds) % 2 == 0)
+				.collect(Collectors.toList());
 		bh.consume(filteredList);
 	}
 	
 	@Benchmark
 	public void streamCollectorToUnmodifiableList(final Blackhole bh) {
-		final List<Integer> filteredList =
-				DATA_FOR_TESTING.stream().filter(v -> v % 2 == 0).collect(Collectors.toUnmodifiableList());
+		final List<Integer> filteredList = DATA_FOR_TESTING.stream()
+				.filter(v -> IntFilter.scramble(v, rounds) % 2 == 0)
+				.collect(Collectors.toUnmodifiableList());
 		bh.consume(filteredList);
 	}
 	
 	@Benchmark
 	public void streamToList(final Blackhole bh) {
-		final List<Integer> filteredList = DATA_FOR_TESTING.stream().filter(v -> v % 2 == 0).toList();
+		final List<Integer> filteredList =
+				DATA_FOR_TESTING.stream().filter(v -> IntFilter.scramble(v, rounds) % 2 == 0).toList();
 		bh.consume(filteredList);
 	}
 	
@@ -79,7 +111,7 @@ public class FilteredList {
 	public void iterator(final Blackhole bh) {
 		final List<Integer> filteredList = new ArrayList<>();
 		for (final Integer v : DATA_FOR_TESTING) {
-			if (v % 2 == 0) {
+			if (IntFilter.scramble(v, rounds) % 2 == 0) {
 				filteredList.add(v);
 			}
 		}
@@ -90,12 +122,54 @@ public class FilteredList {
 	public void index(final Blackhole bh) {
 		final List<Integer> filteredList = new ArrayList<>();
 		for (int i = 0, len = DATA_FOR_TESTING.size(); i < len; ++i) {
-			if (DATA_FOR_TESTING.get(i) % 2 == 0) {
+			if (IntFilter.scramble(DATA_FOR_TESTING.get(i), rounds) % 2 == 0) {
 				filteredList.add(DATA_FOR_TESTING.get(i));
 			}
 		}
 		bh.consume(filteredList);
 	}
+	
+	@Benchmark
+	public void intListBranchy(final Blackhole bh) {
+		bh.consume(IntFilter.evenBranchy(INT_DATA_FOR_TESTING, rounds));
+	}
+	
+	@Benchmark
+	public void intListBranchless(final Blackhole bh) {
+		bh.consume(IntFilter.evenBranchless(INT_DATA_FOR_TESTING, rounds));
+	}
+	
+	@Benchmark
+	public void intListVector(final Blackhole bh) {
+		bh.consume(IntFilter.evenVector(INT_DATA_FOR_TESTING, rounds));
+	}
+	
+	public enum MatchPattern {
+		/** matches evenly spaced, at 50% every other value like the original data */
+		PERIODIC,
+		/** each value matches independently with the selectivity as probability */
+		RANDOM,
+		/** runs of matches at the start of every block of 100 values */
+		CLUSTERED;
+		
+		boolean matches(final int i, final int selectivity, final Random random) {
+			return switch (this) {
+				case PERIODIC -> (long) i * selectivity % 100 < selectivity;
+				case RANDOM -> random.nextInt(100) < selectivity;
+				case CLUSTERED -> i % 100 < selectivity;
+			};
+		}
+	}
+	
+	public enum PredicateCost {
+		CHEAP(0), EXPENSIVE(8);
+		
+		private final int rounds;
+		
+		PredicateCost(final int rounds) {
+			this.rounds = rounds;
+		}
+	}
 }
 /*
 JDK 17 - laptop 6+6 cores
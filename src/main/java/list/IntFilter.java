@@ -0,0 +1,204 @@
+package list;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * Kernels keeping the even values of an {@link IntList}. Requires {@code --add-modules=jdk.incubator.vector}.
+ * <p>
+ * The predicate cost is set by {@code rounds}: values are scrambled that many times before the parity test. The
+ * scramble preserves the lowest bit, so the result does not depend on it.
+ */
+public final class IntFilter {
+	
+	private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+	/** elements per leaf task or chunk of the parallel kernels */
+	private static final int CHUNK = 1 << 14;
+	
+	private static final int SCRAMBLE = 0x9E3779B1;
+	
+	private IntFilter() {
+		// no instances
+	}
+	
+	/**
+	 * Parity-preserving scramble: multiplying by an odd constant and xor with a left shift both keep the lowest bit.
+	 *
+	 * @param v
+	 * 		value
+	 * @param rounds
+	 * 		number of rounds
+	 * @return scrambled value with the parity of v
+	 */
+	public static int scramble(int v, final int rounds) {
+		for (int r = 0; r < rounds; ++r) {
+			v *= SCRAMBLE;
+			v ^= v << 13;
+		}
+		return v;
+	}
+	
+	public static IntList evenBranchy(final IntList list, final int rounds) {
+		final int[] in = list.elements();
+		final IntList result = new IntList();
+		for (int i = 0, len = list.size(); i < len; ++i) {
+			if (scramble(in[i], rounds) % 2 == 0) {
+				result.add(in[i]);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Compress-store without a branch: every value is written, but the output position only advances for matches.
+	 *
+	 * @param list
+	 * 		values
+	 * @param rounds
+	 * 		scramble rounds before the parity test
+	 * @return even values
+	 */
+	public static IntList evenBranchless(final IntList list, final int rounds) {
+		final int[] in = list.elements();
+		final int len = list.size();
+		final int[] out = new int[len];
+		int pos = 0;
+		for (int i = 0; i < len; ++i) {
+			final int v = in[i];
+			out[pos] = v;
+			pos += ~scramble(v, rounds) & 1;
+		}
+		return new IntList(out, pos);
+	}
+	
+	/**
+	 * Vector API compress: matching lanes are packed to the front of the vector and stored as a whole, the output
+	 * position advances by the match count. The output has one vector of slack for the last store.
+	 *
+	 * @param list
+	 * 		values
+	 * @param rounds
+	 * 		scramble rounds before the parity test
+	 * @return even values
+	 */
+	public static IntList evenVector(final IntList list, final int rounds) {
+		final int[] in = list.elements();
+		final int len = list.size();
+		final int[] out = new int[len + SPECIES.length()];
+		int pos = 0;
+		int i = 0;
+		for (final int bound = SPECIES.loopBound(len); i < bound; i += SPECIES.length()) {
+			final IntVector v = IntVector.fromArray(SPECIES, in, i);
+			IntVector h = v;
+			for (int r = 0; r < rounds; ++r) {
+				h = h.mul(SCRAMBLE);
+				h = h.lanewise(VectorOperators.XOR, h.lanewise(VectorOperators.LSHL, 13));
+			}
+			final VectorMask<Integer> even = h.and(1).compare(VectorOperators.EQ, 0);
+			v.compress(even).intoArray(out, pos);
+			pos += even.trueCount();
+		}
+		for (; i < len; ++i) {
+			final int v = in[i];
+			out[pos] = v;
+			pos += ~scramble(v, rounds) & 1;
+		}
+		return new IntList(out, pos);
+	}
+	
+	/**
+	 * Fork/join filter on the common pool: leaf tasks filter their chunk into a trimmed array, parents concatenate the
+	 * results of their two halves.
+	 *
+	 * @param list
+	 * 		values
+	 * @param rounds
+	 * 		scramble rounds before the parity test
+	 * @return even values
+	 */
+	public static IntList evenForkJoin(final IntList list, final int rounds) {
+		final int[] result = new EvenTask(list.elements(), 0, list.size(), rounds).invoke();
+		return new IntList(result, result.length);
+	}
+	
+	/**
+	 * Parallel filter allocating the result exactly once: the first pass counts the matches per chunk, prefix sums of
+	 * the counts give each chunk its output offset, and the second pass fills its range of the result.
+	 *
+	 * @param list
+	 * 		values
+	 * @param rounds
+	 * 		scramble rounds before the parity test
+	 * @return even values
+	 */
+	public static IntList evenTwoPass(final IntList list, final int rounds) {
+		final int[] in = list.elements();
+		final int len = list.size();
+		final int chunks = (len + CHUNK - 1) / CHUNK;
+		final int[] offsets = IntStream.range(0, chunks).parallel().map(c -> {
+			int count = 0;
+			for (int i = c * CHUNK, end = Math.min(len, i + CHUNK); i < end; ++i) {
+				count += ~scramble(in[i], rounds) & 1;
+			}
+			return count;
+		}).toArray();
+		int total = 0;
+		for (int c = 0; c < chunks; ++c) {
+			final int count = offsets[c];
+			offsets[c] = total;
+			total += count;
+		}
+		final int[] out = new int[total];
+		IntStream.range(0, chunks).parallel().forEach(c -> {
+			int pos = offsets[c];
+			for (int i = c * CHUNK, end = Math.min(len, i + CHUNK); i < end; ++i) {
+				if ((scramble(in[i], rounds) & 1) == 0) {
+					out[pos++] = in[i];
+				}
+			}
+		});
+		return new IntList(out, total);
+	}
+	
+	private static final class EvenTask extends RecursiveTask<int[]> {
+		private final int[] in;
+		private final int from;
+		private final int to;
+		private final int rounds;
+		
+		EvenTask(final int[] in, final int from, final int to, final int rounds) {
+			this.in = in;
+			this.from = from;
+			this.to = to;
+			this.rounds = rounds;
+		}
+		
+		@Override
+		protected int[] compute() {
+			if (to - from <= CHUNK) {
+				final int[] out = new int[to - from];
+				int pos = 0;
+				for (int i = from; i < to; ++i) {
+					final int v = in[i];
+					out[pos] = v;
+					pos += ~scramble(v, rounds) & 1;
+				}
+				return Arrays.copyOf(out, pos);
+			}
+			final int mid = (from + to) >>> 1;
+			final EvenTask right = new EvenTask(in, mid, to, rounds);
+			right.fork();
+			final int[] leftResult = new EvenTask(in, from, mid, rounds).compute();
+			final int[] rightResult = right.join();
+			final int[] result = Arrays.copyOf(leftResult, leftResult.length + rightResult.length);
+			System.arraycopy(rightResult, 0, result, leftResult.length, rightResult.length);
+			return result;
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package list;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Growable list of primitive ints backed by an int[], avoiding the Integer boxes of a {@code List<Integer>}.
+ */
+public final class IntList {
+	
+	private int[] elements;
+	private int size;
+	
+	public IntList() {
+		this(10);
+	}
+	
+	public IntList(final int initialCapacity) {
+		elements = new int[initialCapacity];
+	}
+	
+	/**
+	 * Adopts the first {@code size} elements of an array without copying.
+	 */
+	IntList(final int[] elements, final int size) {
+		this.elements = elements;
+		this.size = size;
+	}
+	
+	public void add(final int value) {
+		if (size == elements.length) {
+			elements = Arrays.copyOf(elements, Math.max(8, elements.length + (elements.length >> 1)));
+		}
+		elements[size++] = value;
+	}
+	
+	public int get(final int index) {
+		Objects.checkIndex(index, size);
+		return elements[index];
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public int[] toArray() {
+		return Arrays.copyOf(elements, size);
+	}
+	
+	/**
+	 * Backing array; only the first {@link #size()} elements are valid.
+	 */
+	int[] elements() {
+		return elements;
+	}
+}
@@ -0,0 +1,110 @@
+package list;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel variants of {@link FilteredList} on the common ForkJoinPool. Each nested class forks with a different
+ * common pool parallelism, so one run shows the scaling over 1 to 8 workers; the calling thread helps in addition to
+ * the workers. The sequential {@link IntFilter#evenBranchless} is included as the single-thread reference.
+ */
+@Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Threads(1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public abstract class ParallelFilteredList {
+	
+	@Param({ "10000", "100000", "1000000", "10000000" })
+	private int N;
+	private List<Integer> DATA_FOR_TESTING;
+	private IntList INT_DATA_FOR_TESTING;
+	
+	@Setup
+	public void setup() {
+		DATA_FOR_TESTING = new ArrayList<>(N);
+		INT_DATA_FOR_TESTING = new IntList(N);
+		for (int i = 0; i < N; ++i) {
+			DATA_FOR_TESTING.add(i);
+			INT_DATA_FOR_TESTING.add(i);
+		}
+		
+		final int[] expected = IntFilter.evenBranchless(INT_DATA_FOR_TESTING, 0).toArray();
+		checkResult(expected, DATA_FOR_TESTING.parallelStream().filter(v -> v % 2 == 0).mapToInt(v -> v).toArray());
+		checkResult(expected, IntFilter.evenForkJoin(INT_DATA_FOR_TESTING, 0).toArray());
+		checkResult(expected, IntFilter.evenTwoPass(INT_DATA_FOR_TESTING, 0).toArray());
+	}
+	
+	private static void checkResult(final int[] expected, final int[] val) {
+		if (!Arrays.equals(expected, val)) {
+			throw new IllegalStateException("Wrong result! Expected " + expected.length + " values, received " +
+					val.length);
+		}
+	}
+	
+	@Benchmark
+	public void sequentialBranchless(final Blackhole bh) {
+		bh.consume(IntFilter.evenBranchless(INT_DATA_FOR_TESTING, 0));
+	}
+	
+	@Benchmark
+	public void parallelStreamToList(final Blackhole bh) {
+		final List<Integer> filteredList = DATA_FOR_TESTING.parallelStream().filter(v -> v % 2 == 0).toList();
+		bh.consume(filteredList);
+	}
+	
+	@Benchmark
+	public void parallelIntStream(final Blackhole bh) {
+		final int[] in = INT_DATA_FOR_TESTING.elements();
+		bh.consume(IntStream.range(0, INT_DATA_FOR_TESTING.size()).parallel().map(i -> in[i]).filter(v -> v % 2 == 0)
+				.toArray());
+	}
+	
+	@Benchmark
+	public void forkJoinConcat(final Blackhole bh) {
+		bh.consume(IntFilter.evenForkJoin(INT_DATA_FOR_TESTING, 0));
+	}
+	
+	@Benchmark
+	public void twoPassCountFill(final Blackhole bh) {
+		bh.consume(IntFilter.evenTwoPass(INT_DATA_FOR_TESTING, 0));
+	}
+	
+	@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G", "--add-modules=jdk.incubator.vector",
+			"-Djava.util.concurrent.ForkJoinPool.common.parallelism=1" })
+	public static class Parallelism1 extends ParallelFilteredList {
+	}
+	
+	@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G", "--add-modules=jdk.incubator.vector",
+			"-Djava.util.concurrent.ForkJoinPool.common.parallelism=2" })
+	public static class Parallelism2 extends ParallelFilteredList {
+	}
+	
+	@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G", "--add-modules=jdk.incubator.vector",
+			"-Djava.util.concurrent.ForkJoinPool.common.parallelism=4" })
+	public static class Parallelism4 extends ParallelFilteredList {
+	}
+	
+	@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G", "--add-modules=jdk.incubator.vector",
+			"-Djava.util.concurrent.ForkJoinPool.common.parallelism=8" })
+	public static class Parallelism8 extends ParallelFilteredList {
+	}
+}
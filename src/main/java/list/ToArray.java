@@ -10,14 +10,18 @@ import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
-import org.openjdk.jmh.runner.Runner;
-import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
-import org.openjdk.jmh.runner.options.OptionsBuilder;
 
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -34,15 +38,15 @@ public class ToArray {
 	@Param({ "1", "10", "100", "10000000" })
 	private int N;
 	private List<Integer> DATA_FOR_TESTING;
-	
-	public static void main(final String[] args) throws RunnerException {
-		final Options opt = new OptionsBuilder().include(".*" + ToArray.class.getSimpleName() + ".*").forks(1).build();
-		new Runner(opt).run();
-	}
+	private IntList INT_DATA_FOR_TESTING;
 	
 	@Setup
 	public void setup() {
 		DATA_FOR_TESTING = createData();
+		INT_DATA_FOR_TESTING = new IntList(N);
+		for (final Integer v : DATA_FOR_TESTING) {
+			INT_DATA_FOR_TESTING.add(v);
+		}
 	}
 	
 	private List<Integer> createData() {
@@ -80,6 +84,92 @@ public class ToArray {
 		}
 		bh.consume(array);
 	}
+	
+	@Benchmark
+	public void streamMapToInt(final Blackhole bh) {
+		final int[] array = DATA_FOR_TESTING.stream().mapToInt(Integer::intValue).toArray();
+		bh.consume(array);
+	}
+	
+	@Benchmark
+	public void unboxingLoop(final Blackhole bh) {
+		final int len = DATA_FOR_TESTING.size();
+		final int[] array = new int[len];
+		for (int i = 0; i < len; ++i) {
+			array[i] = DATA_FOR_TESTING.get(i);
+		}
+		bh.consume(array);
+	}
+	
+	@Benchmark
+	public void intListArraycopy(final Blackhole bh) {
+		final int len = INT_DATA_FOR_TESTING.size();
+		final int[] array = new int[len];
+		System.arraycopy(INT_DATA_FOR_TESTING.elements(), 0, array, 0, len);
+		bh.consume(array);
+	}
+	
+	@Benchmark
+	public void memorySegmentUnboxing(final OffHeapTargets targets, final Blackhole bh) {
+		for (int i = 0, len = DATA_FOR_TESTING.size(); i < len; ++i) {
+			targets.segment.setAtIndex(ValueLayout.JAVA_INT, i, DATA_FOR_TESTING.get(i));
+		}
+		bh.consume(targets.segment);
+	}
+	
+	@Benchmark
+	public void memorySegmentCopy(final OffHeapTargets targets, final Blackhole bh) {
+		MemorySegment.copy(INT_DATA_FOR_TESTING.elements(), 0, targets.segment, ValueLayout.JAVA_INT, 0,
+				INT_DATA_FOR_TESTING.size());
+		bh.consume(targets.segment);
+	}
+	
+	/**
+	 * Same as {@link #memorySegmentCopy(OffHeapTargets, Blackhole)}, but allocates and frees the off-heap memory per
+	 * operation.
+	 */
+	@Benchmark
+	public void memorySegmentArena(final Blackhole bh) {
+		try (Arena confined = Arena.ofConfined()) {
+			final MemorySegment target =
+					confined.allocate(MemoryLayout.sequenceLayout(INT_DATA_FOR_TESTING.size(), ValueLayout.JAVA_INT));
+			MemorySegment.copy(INT_DATA_FOR_TESTING.elements(), 0, target, ValueLayout.JAVA_INT, 0,
+					INT_DATA_FOR_TESTING.size());
+			bh.consume(target.getAtIndex(ValueLayout.JAVA_INT, 0));
+		}
+	}
+	
+	@Benchmark
+	public void directIntBuffer(final OffHeapTargets targets, final Blackhole bh) {
+		targets.directBuffer.clear();
+		targets.directBuffer.put(INT_DATA_FOR_TESTING.elements(), 0, INT_DATA_FOR_TESTING.size());
+		bh.consume(targets.directBuffer);
+	}
+	
+	/**
+	 * Off-heap targets, allocated once per thread like a reused native or IPC buffer, so runs with several threads do
+	 * not share them.
+	 */
+	@State(Scope.Thread)
+	public static class OffHeapTargets {
+		private Arena arena;
+		private MemorySegment segment;
+		private IntBuffer directBuffer;
+		
+		@Setup
+		public void setup(final ToArray benchmark) {
+			arena = Arena.ofConfined();
+			segment = arena.allocate(MemoryLayout.sequenceLayout(benchmark.N, ValueLayout.JAVA_INT));
+			directBuffer = ByteBuffer.allocateDirect(benchmark.N * Integer.BYTES)
+					.order(ByteOrder.nativeOrder())
+					.asIntBuffer();
+		}
+		
+		@TearDown
+		public void tearDown() {
+			arena.close();
+		}
+	}
 }
 /*
 JDK 17 - laptop 6+6 cores
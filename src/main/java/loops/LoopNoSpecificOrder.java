@@ -3,6 +3,7 @@ package loops;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
@@ -10,20 +11,42 @@ import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
-import org.openjdk.jmh.runner.Runner;
-import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
-import org.openjdk.jmh.runner.options.OptionsBuilder;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 // https://mkyong.com/java/jmh-java-forward-loop-vs-reverse-loop/
+/**
+ * Loop shapes over a batch of strings in different containers and heap placements, with a configurable amount of
+ * {@link Work} per element. Over {@code N} and the work, the parallel variants show where they break even with the
+ * sequential loops.
+ * <p>
+ * Cache misses per operation are reported by the {@code perfnorm} profiler on Linux with perf installed; divide by
+ * {@code N} for the misses per element, e.g.
+ * {@code java -jar target/benchmarks.jar loops -p N=10000000 -p container=ARRAY_LIST
+ * -p placement=SEQUENTIAL,SHUFFLED,INTERLEAVED -prof perfnorm}.
+ * <p>
+ * With {@code N=10000000}, the strings take about 560 MB and every reference array 40 MB; the data is held by up to
+ * three of them during setup. {@code LINKED_LIST} adds about 240 MB of nodes and {@code INTERLEAVED} about 400 MB of
+ * filler, so the largest combination needs about 1.4 GB of the 2 GB heap.
+ */
 @Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
 @Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
 @Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G" })
@@ -33,153 +56,368 @@ import java.util.concurrent.TimeUnit;
 @State(Scope.Benchmark)
 public class LoopNoSpecificOrder {
 	
-	@Param({ "1", "10", "100", "10000000" })
-	private int N;
+	/**
+	 * Backing container of the data. {@code STRING_ARRAY} is accessed through {@link Arrays#asList}, whose accessors
+	 * inline to plain array accesses. The indexed loops run on the containers of {@link RandomAccessData} only, as
+	 * they would be quadratic on {@code LINKED_LIST} and {@code ARRAY_DEQUE} has no index.
+	 */
+	public enum Container {
+		STRING_ARRAY,
+		ARRAY_LIST,
+		LINKED_LIST,
+		ARRAY_DEQUE,
+		IMMUTABLE_LIST,
+		/** UTF-8 records in a {@link Utf8RecordList}, decoded on every access */
+		OFF_HEAP_UTF8
+	}
+	
+	/**
+	 * Heap placement of the strings. Young collections copy survivors roughly in the order they are reached from the
+	 * list, which partly restores the list order; a full collection of G1 or Parallel GC slides objects without
+	 * reordering them, so {@code fullGc} keeps the scattering but removes dead space.
+	 */
+	public enum Placement {
+		/** allocated in list order, adjacent in memory */
+		SEQUENTIAL,
+		/** allocated in random order, neighbours in the list are far apart in memory */
+		SHUFFLED,
+		/** allocated in list order with a live filler array of 16 to 64 bytes after each */
+		INTERLEAVED
+	}
 	
-	private List<String> DATA_FOR_TESTING;
+	/**
+	 * The strings in the container of the subclass. Only the sequential placement runs by default; the placement study
+	 * runs with {@code -p placement=SEQUENTIAL,SHUFFLED,INTERLEAVED -p fullGc=false,true}. Both do not matter for
+	 * {@code OFF_HEAP_UTF8}, which drops the strings after encoding them.
+	 */
+	@State(Scope.Benchmark)
+	public abstract static class Data {
+		@Param({ "1", "10", "100", "10000000" })
+		private int N;
+		@Param({ "SEQUENTIAL" })
+		private Placement placement;
+		@Param({ "false" })
+		private boolean fullGc;
+		
+		Collection<String> values;
+		/** filler objects between the strings of {@code INTERLEAVED}, kept alive so the gaps stay */
+		private Object[] filler;
+		
+		abstract Container container();
+		
+		@Setup
+		public void setup() {
+			final List<String> data = createData();
+			values = switch (container()) {
+				case STRING_ARRAY -> Arrays.asList(data.toArray(String[]::new));
+				case ARRAY_LIST -> data;
+				case LINKED_LIST -> new LinkedList<>(data);
+				case ARRAY_DEQUE -> new ArrayDeque<>(data);
+				case IMMUTABLE_LIST -> List.copyOf(data);
+				case OFF_HEAP_UTF8 -> new Utf8RecordList(data);
+			};
+			if (fullGc) {
+				System.gc();
+			}
+		}
+		
+		@TearDown
+		public void tearDown() {
+			if (values instanceof final Utf8RecordList records) {
+				records.close();
+			}
+		}
+		
+		private List<String> createData() {
+			final String[] values = new String[N];
+			final Random random = new Random(42);
+			switch (placement) {
+				case SEQUENTIAL -> {
+					for (int i = 0; i < N; ++i) {
+						values[i] = "Number : " + i;
+					}
+				}
+				case SHUFFLED -> {
+					final int[] order = new int[N];
+					for (int i = 0; i < N; ++i) {
+						order[i] = i;
+					}
+					for (int i = N - 1; i > 0; --i) {
+						final int j = random.nextInt(i + 1);
+						final int tmp = order[i];
+						order[i] = order[j];
+						order[j] = tmp;
+					}
+					for (final int i : order) {
+						values[i] = "Number : " + i;
+					}
+				}
+				case INTERLEAVED -> {
+					filler = new Object[N];
+					for (int i = 0; i < N; ++i) {
+						values[i] = "Number : " + i;
+						filler[i] = new byte[random.nextInt(49)];
+					}
+				}
+			}
+			return new ArrayList<>(Arrays.asList(values));
+		}
+	}
 	
-	public static void main(final String[] args) throws RunnerException {
-		final Options opt =
-				new OptionsBuilder().include(".*" + LoopNoSpecificOrder.class.getSimpleName() + ".*").forks(1).build();
-		new Runner(opt).run();
+	/** Data of the loops over the {@link Collection} interface, in every container. */
+	public static class AnyData extends Data {
+		@Param
+		private Container container;
+		
+		@Override
+		Container container() {
+			return container;
+		}
 	}
 	
-	@Setup
-	public void setup() {
-		DATA_FOR_TESTING = createData();
+	/** Data of the indexed loops, in the containers with constant time random access. */
+	public static class RandomAccessData extends Data {
+		@Param({ "STRING_ARRAY", "ARRAY_LIST", "IMMUTABLE_LIST", "OFF_HEAP_UTF8" })
+		private Container container;
+		
+		@Override
+		Container container() {
+			return container;
+		}
+		
+		List<String> list() {
+			return (List<String>) values;
+		}
 	}
 	
-	private List<String> createData() {
-		final List<String> data = new ArrayList<>(N);
-		for (int i = 0; i < N; ++i) {
-			data.add("Number : " + i);
+	/**
+	 * Pools of the parallel variants not using the common pool, bounded to {@code poolParallelism} threads so the
+	 * scaling is visible; 0 uses all cores, one more worker than the common pool.
+	 */
+	@State(Scope.Benchmark)
+	public static class Pools {
+		@Param({ "2", "4", "0" })
+		private int poolParallelism;
+		private ForkJoinPool forkJoinPool;
+		private ExecutorService fixedThreadPool;
+		
+		@Setup
+		public void setup() {
+			final int parallelism = poolParallelism > 0 ? poolParallelism : Runtime.getRuntime().availableProcessors();
+			forkJoinPool = new ForkJoinPool(parallelism);
+			fixedThreadPool = Executors.newFixedThreadPool(parallelism);
+		}
+		
+		@TearDown
+		public void tearDown() {
+			forkJoinPool.close();
+			fixedThreadPool.close();
+		}
+	}
+	
+	/**
+	 * Elements per task of the chunked variants.
+	 */
+	@State(Scope.Benchmark)
+	public static class Chunks {
+		@Param({ "1024", "65536" })
+		private int chunkSize;
+	}
+	
+	/**
+	 * Work per element of every loop: {@code cpuTokens} of {@link Blackhole#consumeCPU} and, with {@code hashChars},
+	 * a hash over all chars of the string. {@link String#hashCode()} is cached, so the hash is computed by hand; it
+	 * reads the string's bytes, so it also pays for cache misses of scattered strings. By default the loops only
+	 * consume the strings; the break-even study runs with {@code -p cpuTokens=0,10,100 -p hashChars=false,true}.
+	 */
+	@State(Scope.Thread)
+	public static class Work {
+		@Param({ "0" })
+		private int cpuTokens;
+		@Param({ "false" })
+		private boolean hashChars;
+		private Blackhole bh;
+		
+		@Setup(Level.Iteration)
+		public void setup(final Blackhole bh) {
+			this.bh = bh;
+		}
+		
+		void process(final String s) {
+			if (cpuTokens > 0) {
+				Blackhole.consumeCPU(cpuTokens);
+			}
+			if (hashChars) {
+				bh.consume(hash(s));
+			} else {
+				bh.consume(s);
+			}
+		}
+		
+		private static int hash(final String s) {
+			int h = 0;
+			for (int i = 0, len = s.length(); i < len; ++i) {
+				h = 31 * h + s.charAt(i);
+			}
+			return h;
 		}
-		return data;
 	}
 	
 	@Benchmark
-	public void reverseFor(final Blackhole bh) {
-		for (int i = DATA_FOR_TESTING.size() - 1; i >= 0; --i) {
-			final String s = DATA_FOR_TESTING.get(i);
-			bh.consume(s);
+	public void reverseFor(final RandomAccessData data, final Work work) {
+		for (int i = data.list().size() - 1; i >= 0; --i) {
+			final String s = data.list().get(i);
+			work.process(s);
 		}
 	}
 	
 	@Benchmark
-	public void forwardFor(final Blackhole bh) {
-		for (int i = 0; i < DATA_FOR_TESTING.size(); i++) {
-			final String s = DATA_FOR_TESTING.get(i);
-			bh.consume(s);
+	public void forwardFor(final RandomAccessData data, final Work work) {
+		for (int i = 0; i < data.list().size(); i++) {
+			final String s = data.list().get(i);
+			work.process(s);
 		}
 	}
 	
 	@Benchmark
-	public void forwardForAlt(final Blackhole bh) {
-		for (int i = 0, len = DATA_FOR_TESTING.size(); i < len; ++i) {
-			final String s = DATA_FOR_TESTING.get(i);
-			bh.consume(s);
+	public void forwardForAlt(final RandomAccessData data, final Work work) {
+		for (int i = 0, len = data.list().size(); i < len; ++i) {
+			final String s = data.list().get(i);
+			work.process(s);
 		}
 	}
 	
 	@Benchmark
-	public void forwardWhile(final Blackhole bh) {
+	public void forwardWhile(final RandomAccessData data, final Work work) {
 		int i = 0;
-		while (i < DATA_FOR_TESTING.size()) {
-			final String s = DATA_FOR_TESTING.get(i);
-			bh.consume(s);
+		while (i < data.list().size()) {
+			final String s = data.list().get(i);
+			work.process(s);
 			i++;
 		}
 	}
 	
 	@Benchmark
-	public void forwardWhileAlt(final Blackhole bh) {
+	public void forwardWhileAlt(final RandomAccessData data, final Work work) {
 		int i = 0;
-		final int len = DATA_FOR_TESTING.size();
+		final int len = data.list().size();
 		while (i < len) {
-			final String s = DATA_FOR_TESTING.get(i);
-			bh.consume(s);
+			final String s = data.list().get(i);
+			work.process(s);
 			++i;
 		}
 	}
 	
 	@Benchmark
-	public void reverseWhile(final Blackhole bh) {
-		int i = DATA_FOR_TESTING.size() - 1;
+	public void reverseWhile(final RandomAccessData data, final Work work) {
+		int i = data.list().size() - 1;
 		while (i >= 0) {
-			final String s = DATA_FOR_TESTING.get(i);
-			bh.consume(s);
+			final String s = data.list().get(i);
+			work.process(s);
 			i--;
 		}
 	}
 	
 	@Benchmark
-	public void reverseWhileAlt(final Blackhole bh) {
-		int i = DATA_FOR_TESTING.size() - 1;
+	public void reverseWhileAlt(final RandomAccessData data, final Work work) {
+		int i = data.list().size() - 1;
 		while (i > -1) {
-			final String s = DATA_FOR_TESTING.get(i);
-			bh.consume(s);
+			final String s = data.list().get(i);
+			work.process(s);
 			--i;
 		}
 	}
 	
 	@Benchmark
-	public void loopForEach(final Blackhole bh) {
-		for (final String s : DATA_FOR_TESTING) {
-			bh.consume(s);
+	public void loopForEach(final AnyData data, final Work work) {
+		for (final String s : data.values) {
+			work.process(s);
 		}
 	}
 	
 	@Benchmark
-	public void loopIterator(final Blackhole bh) {
-		final Iterator<String> iterator = DATA_FOR_TESTING.iterator();
+	public void loopIterator(final AnyData data, final Work work) {
+		final Iterator<String> iterator = data.values.iterator();
 		while (iterator.hasNext()) {
 			final String s = iterator.next();
-			bh.consume(s);
+			work.process(s);
 		}
 	}
 	
 	@Benchmark
-	public void collectionForEach(final Blackhole bh) {
-		DATA_FOR_TESTING.forEach(s -> bh.consume(bh));
+	public void collectionForEach(final AnyData data, final Work work) {
+		data.values.forEach(s -> work.process(s));
+	}
+	
+	@Benchmark
+	public void collectionForEachMethodRef(final AnyData data, final Work work) {
+		data.values.forEach(work::process);
 	}
 	
 	@Benchmark
-	public void collectionForEachMethodRef(final Blackhole bh) {
-		DATA_FOR_TESTING.forEach(bh::consume);
+	public void collectionStreamForEach(final AnyData data, final Work work) {
+		data.values.stream().forEach(s -> work.process(s));
 	}
 	
 	@Benchmark
-	public void collectionStreamForEach(final Blackhole bh) {
-		DATA_FOR_TESTING.stream().forEach(s -> bh.consume(s));
+	public void collectionStreamForEachMethodRef(final AnyData data, final Work work) {
+		data.values.stream().forEach(work::process);
 	}
 	
 	@Benchmark
-	public void collectionStreamForEachMethodRef(final Blackhole bh) {
-		DATA_FOR_TESTING.stream().forEach(bh::consume);
+	public void collectionStreamParallelIndirect(final AnyData data, final Work work) {
+		// not in order!
+		data.values.stream().parallel().forEach(s -> work.process(s));
 	}
 	
 	@Benchmark
-	public void collectionStreamParallelIndirect(final Blackhole bh) {
+	public void collectionStreamParallelIndirectMethodRef(final AnyData data, final Work work) {
 		// not in order!
-		DATA_FOR_TESTING.stream().parallel().forEach(s -> bh.consume(s));
+		data.values.stream().parallel().forEach(work::process);
 	}
 	
 	@Benchmark
-	public void collectionStreamParallelIndirectMethodRef(final Blackhole bh) {
+	public void collectionStreamParallelDirect(final AnyData data, final Work work) {
 		// not in order!
-		DATA_FOR_TESTING.stream().parallel().forEach(bh::consume);
+		data.values.parallelStream().forEach(s -> work.process(s));
 	}
 	
 	@Benchmark
-	public void collectionStreamParallelDirect(final Blackhole bh) {
+	public void collectionStreamParallelDirectMethodRef(final AnyData data, final Work work) {
 		// not in order!
-		DATA_FOR_TESTING.parallelStream().forEach(s -> bh.consume(s));
+		data.values.parallelStream().forEach(work::process);
+	}
+	
+	@Benchmark
+	public void customForkJoinPoolStream(final AnyData data, final Pools pools, final Work work) {
+		// not in order! a parallel stream started in a pool runs its tasks in that pool
+		pools.forkJoinPool.submit(() -> data.values.parallelStream().forEach(s -> work.process(s))).join();
+	}
+	
+	@Benchmark
+	public void fixedThreadPoolSubLists(final RandomAccessData data, final Pools pools, final Chunks chunks,
+			final Work work) throws InterruptedException, ExecutionException {
+		// not in order!
+		final int size = data.list().size();
+		final List<Callable<Void>> tasks = new ArrayList<>(size / chunks.chunkSize + 1);
+		for (int from = 0; from < size; from += chunks.chunkSize) {
+			final List<String> chunk = data.list().subList(from, Math.min(size, from + chunks.chunkSize));
+			tasks.add(() -> {
+				chunk.forEach(s -> work.process(s));
+				return null;
+			});
+		}
+		for (final Future<Void> future : pools.fixedThreadPool.invokeAll(tasks)) {
+			future.get();
+		}
 	}
 	
 	@Benchmark
-	public void collectionStreamParallelDirectMethodRef(final Blackhole bh) {
+	@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G", "--enable-preview" })
+	public void structuredVirtualThreadSubLists(final RandomAccessData data, final Chunks chunks, final Work work)
+			throws InterruptedException {
 		// not in order!
-		DATA_FOR_TESTING.parallelStream().forEach(bh::consume);
+		StructuredChunks.forEach(data.list(), chunks.chunkSize, s -> work.process(s));
 	}
 	
 }
@@ -0,0 +1,43 @@
+package loops;
+
+import java.util.List;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.function.Consumer;
+
+/**
+ * Chunked iteration with one virtual thread per chunk in a {@link StructuredTaskScope}. The scope is a preview API,
+ * forks need {@code --enable-preview}.
+ */
+public final class StructuredChunks {
+	
+	private StructuredChunks() {
+		// no instances
+	}
+	
+	/**
+	 * Runs the action for every element, the chunks concurrently and each chunk in order. Returns when all chunks
+	 * are done; the first failure cancels the remaining chunks and is thrown wrapped in a
+	 * {@link StructuredTaskScope.FailedException}.
+	 *
+	 * @param data
+	 * 		elements, should support random access for cheap sub lists
+	 * @param chunkSize
+	 * 		elements per virtual thread
+	 * @param action
+	 * 		thread-safe action
+	 * @param <T>
+	 * 		element type
+	 * @throws InterruptedException
+	 * 		when interrupted while waiting for the chunks
+	 */
+	public static <T> void forEach(final List<T> data, final int chunkSize, final Consumer<? super T> action)
+			throws InterruptedException {
+		try (final StructuredTaskScope<Object, Void> scope = StructuredTaskScope.open()) {
+			for (int from = 0, size = data.size(); from < size; from += chunkSize) {
+				final List<T> chunk = data.subList(from, Math.min(size, from + chunkSize));
+				scope.fork(() -> chunk.forEach(action));
+			}
+			scope.join();
+		}
+	}
+}
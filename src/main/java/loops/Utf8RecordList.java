@@ -0,0 +1,69 @@
+package loops;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of strings stored off-heap as flattened UTF-8 records: one segment with the bytes of all records and
+ * one with the start offset of each record, plus the end of the last. Every {@link #get} decodes a new string, which
+ * is the price of keeping a large batch outside the heap.
+ * <p>
+ * The segments live in a shared arena, so parallel streams can read them, until {@link #close()}.
+ */
+public final class Utf8RecordList extends AbstractList<String> implements RandomAccess, AutoCloseable {
+	
+	private final Arena arena;
+	private final MemorySegment offsets;
+	private final MemorySegment bytes;
+	private final int size;
+	
+	public Utf8RecordList(final Collection<String> values) {
+		size = values.size();
+		long totalBytes = 0;
+		for (final String value : values) {
+			totalBytes += value.getBytes(StandardCharsets.UTF_8).length;
+		}
+		if (totalBytes > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Records exceed 2 GiB: " + totalBytes);
+		}
+		arena = Arena.ofShared();
+		offsets = arena.allocate(MemoryLayout.sequenceLayout(size + 1L, ValueLayout.JAVA_INT));
+		bytes = arena.allocate(Math.max(1, totalBytes));
+		int offset = 0;
+		int i = 0;
+		for (final String value : values) {
+			final byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+			offsets.setAtIndex(ValueLayout.JAVA_INT, i++, offset);
+			MemorySegment.copy(encoded, 0, bytes, ValueLayout.JAVA_BYTE, offset, encoded.length);
+			offset += encoded.length;
+		}
+		offsets.setAtIndex(ValueLayout.JAVA_INT, size, offset);
+	}
+	
+	@Override
+	public String get(final int index) {
+		Objects.checkIndex(index, size);
+		final int from = offsets.getAtIndex(ValueLayout.JAVA_INT, index);
+		final int length = offsets.getAtIndex(ValueLayout.JAVA_INT, index + 1L) - from;
+		final byte[] record = new byte[length];
+		MemorySegment.copy(bytes, ValueLayout.JAVA_BYTE, from, record, 0, length);
+		return new String(record, StandardCharsets.UTF_8);
+	}
+	
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	@Override
+	public void close() {
+		arena.close();
+	}
+}
@@ -11,10 +11,6 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
-import org.openjdk.jmh.runner.Runner;
-import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
-import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.security.SecureRandom;
 import java.util.Random;
@@ -32,12 +28,6 @@ public class RandomDouble {
 	private final Random random = new Random();
 	private final SecureRandom secureRandom = new SecureRandom();
 	
-	public static void main(final String[] args) throws RunnerException {
-		final Options opt =
-				new OptionsBuilder().include(".*" + RandomDouble.class.getSimpleName() + ".*").forks(1).build();
-		new Runner(opt).run();
-	}
-	
 	@Benchmark
 	public void randomObj(final Blackhole bh) {
 		final double i = random.nextDouble();
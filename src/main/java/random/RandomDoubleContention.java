@@ -0,0 +1,99 @@
+package random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RandomDouble} with several threads. Each nested class runs with a different thread count, from 1 to all cores,
+ * so one run shows how the generators shared via {@link RandomSources.Shared} and {@link Math#random()}, which uses
+ * one global {@link Random}, scale against per-thread {@link Random}, {@link SecureRandom} and
+ * {@link SplittableRandom} instances and {@link ThreadLocalRandom}. The score is the sum over all threads.
+ * <p>
+ * {@link Random#nextDouble()} takes two seed updates per call, so it loses more under contention than
+ * {@link RandomIntContention}.
+ */
+@Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G" })
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public abstract class RandomDoubleContention {
+	@Benchmark
+	public void sharedRandom(final RandomSources.Shared shared, final Blackhole bh) {
+		final double i = shared.random.nextDouble();
+		bh.consume(i);
+	}
+	
+	@Benchmark
+	public void sharedSecureRandom(final RandomSources.Shared shared, final Blackhole bh) {
+		final double i = shared.secureRandom.nextDouble();
+		bh.consume(i);
+	}
+	
+	@Benchmark
+	public void mathRandom(final Blackhole bh) {
+		final double i = Math.random();
+		bh.consume(i);
+	}
+	
+	@Benchmark
+	public void perThreadRandom(final RandomSources.PerThread own, final Blackhole bh) {
+		final double i = own.random.nextDouble();
+		bh.consume(i);
+	}
+	
+	@Benchmark
+	public void perThreadSecureRandom(final RandomSources.PerThread own, final Blackhole bh) {
+		final double i = own.secureRandom.nextDouble();
+		bh.consume(i);
+	}
+	
+	@Benchmark
+	public void threadLocal(final Blackhole bh) {
+		final double i = ThreadLocalRandom.current().nextDouble();
+		bh.consume(i);
+	}
+	
+	@Benchmark
+	public void splittablePerThread(final RandomSources.PerThread own, final Blackhole bh) {
+		final double i = own.splittable.nextDouble();
+		bh.consume(i);
+	}
+	
+	@Threads(1)
+	public static class Threads1 extends RandomDoubleContention {
+	}
+	
+	@Threads(2)
+	public static class Threads2 extends RandomDoubleContention {
+	}
+	
+	@Threads(4)
+	public static class Threads4 extends RandomDoubleContention {
+	}
+	
+	@Threads(8)
+	public static class Threads8 extends RandomDoubleContention {
+	}
+	
+	/** all available processors */
+	@Threads(Threads.MAX)
+	public static class ThreadsMax extends RandomDoubleContention {
+	}
+}
@@ -11,10 +11,6 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
-import org.openjdk.jmh.runner.Runner;
-import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
-import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.security.SecureRandom;
 import java.util.Random;
@@ -34,12 +30,6 @@ public class RandomInt {
 	private final Random random = new Random();
 	private final SecureRandom secureRandom = new SecureRandom();
 	
-	public static void main(final String[] args) throws RunnerException {
-		final Options opt =
-				new OptionsBuilder().include(".*" + RandomInt.class.getSimpleName() + ".*").forks(1).build();
-		new Runner(opt).run();
-	}
-	
 	@Benchmark
 	public void randomObj(final Blackhole bh) {
 		final int i = random.nextInt(BOUND);
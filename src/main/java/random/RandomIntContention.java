@@ -0,0 +1,99 @@
+package random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RandomInt} with several threads. Each nested class runs with a different thread count, from 1 to all cores,
+ * so one run shows how the generators shared via {@link RandomSources.Shared} and {@link Math#random()}, which uses
+ * one global {@link Random}, scale against per-thread {@link Random}, {@link SecureRandom} and
+ * {@link SplittableRandom} instances and {@link ThreadLocalRandom}. The score is the sum over all threads.
+ */
+@Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G" })
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public abstract class RandomIntContention {
+	private static final int BOUND = 100;
+	private static final int BOUND_MINUS_ONE = BOUND - 1;
+	
+	@Benchmark
+	public void sharedRandom(final RandomSources.Shared shared, final Blackhole bh) {
+		final int i = shared.random.nextInt(BOUND);
+		bh.consume(i);
+	}
+	
+	@Benchmark
+	public void sharedSecureRandom(final RandomSources.Shared shared, final Blackhole bh) {
+		final int i = shared.secureRandom.nextInt(BOUND);
+		bh.consume(i);
+	}
+	
+	@Benchmark
+	public void mathRandom(final Blackhole bh) {
+		final int i = (int) (Math.random() * BOUND_MINUS_ONE);
+		bh.consume(i);
+	}
+	
+	@Benchmark
+	public void perThreadRandom(final RandomSources.PerThread own, final Blackhole bh) {
+		final int i = own.random.nextInt(BOUND);
+		bh.consume(i);
+	}
+	
+	@Benchmark
+	public void perThreadSecureRandom(final RandomSources.PerThread own, final Blackhole bh) {
+		final int i = own.secureRandom.nextInt(BOUND);
+		bh.consume(i);
+	}
+	
+	@Benchmark
+	public void threadLocal(final Blackhole bh) {
+		final int i = ThreadLocalRandom.current().nextInt(BOUND);
+		bh.consume(i);
+	}
+	
+	@Benchmark
+	public void splittablePerThread(final RandomSources.PerThread own, final Blackhole bh) {
+		final int i = own.splittable.nextInt(BOUND);
+		bh.consume(i);
+	}
+	
+	@Threads(1)
+	public static class Threads1 extends RandomIntContention {
+	}
+	
+	@Threads(2)
+	public static class Threads2 extends RandomIntContention {
+	}
+	
+	@Threads(4)
+	public static class Threads4 extends RandomIntContention {
+	}
+	
+	@Threads(8)
+	public static class Threads8 extends RandomIntContention {
+	}
+	
+	/** all available processors */
+	@Threads(Threads.MAX)
+	public static class ThreadsMax extends RandomIntContention {
+	}
+}
@@ -0,0 +1,51 @@
+package random;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Generators of the contention benchmarks, either one instance for all benchmark threads or one per thread.
+ */
+public final class RandomSources {
+	
+	private RandomSources() {
+		// no instances
+	}
+	
+	/**
+	 * One instance for all threads, like a generator in a field of a request handler. Every {@link Random} call updates
+	 * the seed with a CAS loop, {@link SecureRandom} synchronizes in its provider.
+	 */
+	@State(Scope.Benchmark)
+	public static class Shared {
+		final Random random = new Random();
+		final SecureRandom secureRandom = new SecureRandom();
+		final SplittableRandom root = new SplittableRandom();
+	}
+	
+	/**
+	 * Own instances of every thread. The {@link SplittableRandom} is split from the shared root, which is not
+	 * thread-safe, so the splits are synchronized.
+	 */
+	@State(Scope.Thread)
+	public static class PerThread {
+		Random random;
+		SecureRandom secureRandom;
+		SplittableRandom splittable;
+		
+		@Setup(Level.Trial)
+		public void setup(final Shared shared) {
+			random = new Random();
+			secureRandom = new SecureRandom();
+			synchronized (shared.root) {
+				splittable = shared.root.split();
+			}
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package results;
+
+import org.apache.commons.math3.stat.inference.MannWhitneyUTest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Regression gate comparing a candidate run against a stored baseline run.
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar compare <baseline> <candidate> [--threshold 5] [--alpha 0.05]
+ * [--allow-missing]}
+ * <p>
+ * The iteration scores of each benchmark and {@code @Param} value are compared with a Mann-Whitney U test, which does
+ * not assume normally distributed scores. A benchmark fails the gate when it got slower by more than the threshold in
+ * percent and the one-sided p-value of the slowdown is below alpha. With less than 2 samples in one of the runs no
+ * test is possible, so a benchmark fails on the threshold alone. Benchmarks of the baseline that are missing in the
+ * candidate fail as well, unless {@code --allow-missing} is given. The process exits with status 1 if any benchmark
+ * failed, so it can gate a build.
+ * <p>
+ * The test needs several samples per side: with 3 iterations per run even a complete separation only reaches
+ * p = 0.025, so run gated benchmarks with more iterations or forks, e.g. {@code -f 3 -i 5}.
+ */
+public final class RegressionGate {
+	
+	private static final MannWhitneyUTest MANN_WHITNEY = new MannWhitneyUTest();
+	
+	private RegressionGate() {
+		// no instances
+	}
+	
+	public static void main(final String[] args) throws IOException {
+		double threshold = 5;
+		double alpha = 0.05;
+		boolean allowMissing = false;
+		final List<String> paths = new ArrayList<>(2);
+		try {
+			for (int i = 0; i < args.length; ++i) {
+				switch (args[i]) {
+					case "--threshold" -> threshold = Double.parseDouble(optionValue(args, ++i));
+					case "--alpha" -> alpha = Double.parseDouble(optionValue(args, ++i));
+					case "--allow-missing" -> allowMissing = true;
+					default -> paths.add(args[i]);
+				}
+			}
+		} catch (final IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			paths.clear();
+		}
+		if (paths.size() != 2) {
+			System.err.println("Usage: compare <baseline csv or directory> <candidate csv or directory> " +
+					"[--threshold <percent>] [--alpha <significance level>] [--allow-missing]");
+			System.exit(2);
+			return;
+		}
+		
+		final List<Verdict> verdicts =
+				compare(ResultStore.load(Path.of(paths.get(0))), ResultStore.load(Path.of(paths.get(1))),
+						threshold / 100, alpha);
+		int regressions = 0;
+		int untested = 0;
+		int missing = 0;
+		int keyWidth = "Benchmark".length();
+		for (final Verdict verdict : verdicts) {
+			keyWidth = Math.max(keyWidth, verdict.key().length());
+		}
+		final String format = "%-" + keyWidth + "s  %16s  %16s  %9s  %8s  %s%n";
+		System.out.printf(format, "Benchmark", "Baseline", "Candidate", "Change", "p", "Verdict");
+		for (final Verdict verdict : verdicts) {
+			System.out.printf(format, verdict.key(), String.format("%.3f", verdict.baseline()),
+					String.format("%.3f", verdict.candidate()), String.format("%+.2f%%", verdict.change() * 100),
+					String.format("%.4f", verdict.pValue()), verdict.outcome());
+			if (verdict.outcome() == Outcome.REGRESSION || verdict.outcome() == Outcome.UNTESTED_REGRESSION) {
+				++regressions;
+			}
+			if (Double.isNaN(verdict.pValue()) && verdict.outcome() != Outcome.MISSING) {
+				++untested;
+			} else if (verdict.outcome() == Outcome.MISSING) {
+				++missing;
+			}
+		}
+		if (regressions > 0) {
+			System.out.printf("%d regression(s) slower than %.2f%% at alpha %.3f%n", regressions, threshold, alpha);
+		}
+		if (untested > 0) {
+			System.out.printf("%d benchmark(s) with less than 2 samples per run, compared by their means without a test%n",
+					untested);
+		}
+		if (missing > 0) {
+			System.out.printf("%d benchmark(s) of the baseline missing in the candidate%s%n", missing,
+					allowMissing ? ", allowed" : "");
+		}
+		if (regressions > 0 || missing > 0 && !allowMissing) {
+			System.exit(1);
+		}
+	}
+	
+	private static String optionValue(final String[] args, final int index) {
+		if (index >= args.length) {
+			throw new IllegalArgumentException("Missing value for option " + args[index - 1]);
+		}
+		return args[index];
+	}
+	
+	/**
+	 * Compares the primary results of both runs. Benchmarks of the baseline missing in the candidate get a
+	 * {@link Outcome#MISSING} verdict, benchmarks only in the candidate are ignored.
+	 *
+	 * @param baseline
+	 * 		samples of the baseline run
+	 * @param candidate
+	 * 		samples of the candidate run
+	 * @param threshold
+	 * 		tolerated slowdown as fraction, e.g. 0.05
+	 * @param alpha
+	 * 		significance level of the one-sided test
+	 * @return one verdict per benchmark key of the baseline, sorted by key
+	 */
+	public static List<Verdict> compare(final List<Sample> baseline, final List<Sample> candidate,
+			final double threshold, final double alpha) {
+		final Map<String, List<Sample>> baseGroups = ResultDiff.groupByKey(baseline);
+		final Map<String, List<Sample>> candGroups = ResultDiff.groupByKey(candidate);
+		final List<Verdict> verdicts = new ArrayList<>();
+		for (final String key : new TreeSet<>(baseGroups.keySet())) {
+			final List<Sample> base = baseGroups.get(key);
+			if (!base.getFirst().isPrimary()) {
+				continue;
+			}
+			final double[] baseScores = scores(base);
+			final List<Sample> cand = candGroups.get(key);
+			if (cand == null) {
+				verdicts.add(new Verdict(key, mean(baseScores), Double.NaN, Double.NaN, Double.NaN, Outcome.MISSING));
+				continue;
+			}
+			final double[] candScores = scores(cand);
+			final ResultDiff.Row row = new ResultDiff.Row(key, base.getFirst().unit(), base.getFirst().lowerIsBetter(),
+					mean(baseScores), mean(candScores));
+			final double change = row.change();
+			
+			final Outcome outcome;
+			final double pValue;
+			if (baseScores.length < 2 || candScores.length < 2) {
+				// no test possible, fall back to the threshold on the means
+				pValue = Double.NaN;
+				outcome = change < -threshold ? Outcome.UNTESTED_REGRESSION : Outcome.INSUFFICIENT_SAMPLES;
+			} else {
+				// the test is two-sided, halving it gives the one-sided p-value in the direction of the change
+				pValue = MANN_WHITNEY.mannWhitneyUTest(baseScores, candScores) / 2;
+				if (pValue >= alpha) {
+					outcome = Outcome.NO_CHANGE;
+				} else if (change < -threshold) {
+					outcome = Outcome.REGRESSION;
+				} else if (change > 0) {
+					outcome = Outcome.IMPROVEMENT;
+				} else {
+					outcome = Outcome.WITHIN_THRESHOLD;
+				}
+			}
+			verdicts.add(new Verdict(key, row.baseline(), row.candidate(), change, pValue, outcome));
+		}
+		return verdicts;
+	}
+	
+	private static double[] scores(final List<Sample> samples) {
+		final double[] scores = new double[samples.size()];
+		for (int i = 0, len = scores.length; i < len; ++i) {
+			scores[i] = samples.get(i).score();
+		}
+		return scores;
+	}
+	
+	private static double mean(final double[] values) {
+		double sum = 0;
+		for (final double value : values) {
+			sum += value;
+		}
+		return sum / values.length;
+	}
+	
+	public enum Outcome {
+		NO_CHANGE, WITHIN_THRESHOLD, IMPROVEMENT, REGRESSION, INSUFFICIENT_SAMPLES,
+		/** slower than the threshold by the means, too few samples for the test */
+		UNTESTED_REGRESSION,
+		MISSING
+	}
+	
+	/**
+	 * Gate result of one benchmark key.
+	 *
+	 * @param key
+	 * 		benchmark key
+	 * @param baseline
+	 * 		mean baseline score
+	 * @param candidate
+	 * 		mean candidate score, {@code NaN} if missing
+	 * @param change
+	 * 		relative change, negative for slowdowns, {@code NaN} if missing
+	 * @param pValue
+	 * 		one-sided p-value of the change, {@code NaN} without enough samples or if missing
+	 * @param outcome
+	 * 		outcome
+	 */
+	public record Verdict(String key, double baseline, double candidate, double change, double pValue,
+	                      Outcome outcome) {}
+}
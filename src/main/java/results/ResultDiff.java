@@ -0,0 +1,121 @@
+package results;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Compares two stored runs per benchmark and {@code @Param} value by the mean score of their iterations.
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar diff <baseline> <candidate>} with CSV files or directories of the
+ * result store.
+ */
+public final class ResultDiff {
+	
+	private ResultDiff() {
+		// no instances
+	}
+	
+	public static void main(final String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: diff <baseline csv or directory> <candidate csv or directory>");
+			System.exit(1);
+			return;
+		}
+		print(diff(ResultStore.load(Path.of(args[0])), ResultStore.load(Path.of(args[1]))), System.out);
+	}
+	
+	/**
+	 * Pairs the samples of both runs by {@link Sample#key()}. Keys found in only one run get a {@code NaN} mean on
+	 * the other side.
+	 *
+	 * @param baseline
+	 * 		samples of the baseline run
+	 * @param candidate
+	 * 		samples of the candidate run
+	 * @return one row per key, sorted by key
+	 */
+	public static List<Row> diff(final List<Sample> baseline, final List<Sample> candidate) {
+		final Map<String, List<Sample>> baseGroups = groupByKey(baseline);
+		final Map<String, List<Sample>> candGroups = groupByKey(candidate);
+		final TreeSet<String> keys = new TreeSet<>(baseGroups.keySet());
+		keys.addAll(candGroups.keySet());
+		
+		final List<Row> rows = new ArrayList<>(keys.size());
+		for (final String key : keys) {
+			final List<Sample> base = baseGroups.getOrDefault(key, List.of());
+			final List<Sample> cand = candGroups.getOrDefault(key, List.of());
+			final Sample any = base.isEmpty() ? cand.getFirst() : base.getFirst();
+			rows.add(new Row(key, any.unit(), any.lowerIsBetter(), mean(base), mean(cand)));
+		}
+		return rows;
+	}
+	
+	static Map<String, List<Sample>> groupByKey(final List<Sample> samples) {
+		final Map<String, List<Sample>> groups = new LinkedHashMap<>();
+		for (final Sample sample : samples) {
+			groups.computeIfAbsent(sample.key(), k -> new ArrayList<>()).add(sample);
+		}
+		return groups;
+	}
+	
+	private static double mean(final List<Sample> samples) {
+		if (samples.isEmpty()) {
+			return Double.NaN;
+		}
+		double sum = 0;
+		for (final Sample sample : samples) {
+			sum += sample.score();
+		}
+		return sum / samples.size();
+	}
+	
+	private static void print(final List<Row> rows, final PrintStream out) {
+		int keyWidth = "Benchmark".length();
+		for (final Row row : rows) {
+			keyWidth = Math.max(keyWidth, row.key().length());
+		}
+		final String format = "%-" + keyWidth + "s  %16s  %16s  %-10s  %9s%n";
+		out.printf(format, "Benchmark", "Baseline", "Candidate", "Units", "Change");
+		for (final Row row : rows) {
+			out.printf(format, row.key(), format(row.baseline()), format(row.candidate()), row.unit(),
+					Double.isNaN(row.change()) ? "" : String.format("%+.2f%%", row.change() * 100));
+		}
+	}
+	
+	private static String format(final double value) {
+		return Double.isNaN(value) ? "-" : String.format("%.3f", value);
+	}
+	
+	/**
+	 * Comparison of one benchmark key.
+	 *
+	 * @param key
+	 * 		benchmark key
+	 * @param unit
+	 * 		score unit
+	 * @param lowerIsBetter
+	 * 		whether a lower score is an improvement
+	 * @param baseline
+	 * 		mean baseline score
+	 * @param candidate
+	 * 		mean candidate score
+	 */
+	public record Row(String key, String unit, boolean lowerIsBetter, double baseline, double candidate) {
+		
+		/**
+		 * Returns the relative change of the candidate, signed so that negative values are always slowdowns.
+		 *
+		 * @return change, e.g. -0.19 for a 19% slowdown
+		 */
+		public double change() {
+			final double change = (candidate - baseline) / baseline;
+			return lowerIsBetter ? -change : change;
+		}
+	}
+}
@@ -0,0 +1,212 @@
+package results;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Result store replacing the result comments pasted below the benchmarks.
+ * <p>
+ * Every run is written into the directory of its {@link RunEnvironment} as {@code <timestamp>.json} in JMH's own JSON
+ * format and as {@code <timestamp>.csv} holding one row per measurement iteration. The raw iterations are what
+ * {@link ResultDiff} and later comparisons load. Runs finishing within the same millisecond get the next free
+ * timestamp, so no run overwrites another.
+ * <p>
+ * A collector selected via JVM option, e.g. {@code -XX:+UseZGC}, is stored as additional param {@code gc=Z}, so runs
+ * of the same benchmark under several collectors stay apart.
+ */
+public final class ResultStore {
+	
+	private static final String CSV_HEADER = "benchmark,mode,threads,params,metric,unit,fork,iteration,score";
+	private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+	private static final Pattern COLLECTOR = Pattern.compile("-XX:\\+Use(\\w+)GC");
+	
+	private final Path root;
+	
+	public ResultStore(final Path root) {
+		this.root = root;
+	}
+	
+	/**
+	 * Writes the results of a run.
+	 *
+	 * @param environment
+	 * 		key of the run
+	 * @param results
+	 * 		results returned by the JMH runner
+	 * @return written CSV file
+	 * @throws IOException
+	 * 		when writing fails
+	 */
+	public Path write(final RunEnvironment environment, final Collection<RunResult> results) throws IOException {
+		final Path directory = environment.directory(root);
+		Files.createDirectories(directory);
+		LocalDateTime time = LocalDateTime.now();
+		Path csv;
+		while (true) {
+			csv = directory.resolve(time.format(TIMESTAMP) + ".csv");
+			try {
+				// reserves the name against concurrent runs
+				Files.createFile(csv);
+				break;
+			} catch (final FileAlreadyExistsException e) {
+				time = time.plus(1, ChronoUnit.MILLIS);
+			}
+		}
+		final String name = time.format(TIMESTAMP);
+		
+		ResultFormatFactory.getInstance(ResultFormatType.JSON, directory.resolve(name + ".json").toString())
+				.writeOut(results);
+		
+		try (final BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+			writer.write(CSV_HEADER);
+			writer.newLine();
+			for (final RunResult runResult : results) {
+				writeRunResult(writer, runResult);
+			}
+		}
+		return csv;
+	}
+	
+	private static void writeRunResult(final BufferedWriter writer, final RunResult runResult) throws IOException {
+		final BenchmarkParams params = runResult.getParams();
+		final String prefix = quote(params.getBenchmark()) + ',' + params.getMode().shortLabel() + ',' +
+				params.getThreads() + ',' + quote(joinParams(params)) + ',';
+		int fork = 0;
+		for (final BenchmarkResult benchmarkResult : runResult.getBenchmarkResults()) {
+			int iteration = 0;
+			for (final IterationResult iterationResult : benchmarkResult.getIterationResults()) {
+				writeRow(writer, prefix, Sample.PRIMARY, iterationResult.getPrimaryResult(), fork, iteration);
+				for (final Map.Entry<String, Result> secondary : iterationResult.getSecondaryResults().entrySet()) {
+					writeRow(writer, prefix, secondary.getKey(), secondary.getValue(), fork, iteration);
+				}
+				++iteration;
+			}
+			++fork;
+		}
+	}
+	
+	private static void writeRow(final BufferedWriter writer, final String prefix, final String metric,
+			final Result<?> result, final int fork, final int iteration) throws IOException {
+		writer.write(prefix + quote(metric) + ',' + quote(result.getScoreUnit()) + ',' + fork + ',' + iteration + ',' +
+				result.getScore());
+		writer.newLine();
+	}
+	
+	private static String joinParams(final BenchmarkParams params) {
+		final StringBuilder sb = new StringBuilder();
+		for (final String key : params.getParamsKeys()) {
+			if (!sb.isEmpty()) {
+				sb.append(';');
+			}
+			sb.append(key).append('=').append(params.getParam(key));
+		}
+		String collector = null;
+		for (final String jvmArg : params.getJvmArgs()) {
+			final Matcher matcher = COLLECTOR.matcher(jvmArg);
+			if (matcher.matches()) {
+				// the last flag wins, like in the JVM
+				collector = matcher.group(1);
+			}
+		}
+		if (collector != null) {
+			sb.append(sb.isEmpty() ? "" : ";").append("gc=").append(collector);
+		}
+		return sb.toString();
+	}
+	
+	private static String quote(final String value) {
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+	
+	/**
+	 * Loads the samples of a stored run. A directory resolves to its most recent CSV file, searching subdirectories,
+	 * so e.g. {@code results/jdk-25} loads the latest run with JDK 25.
+	 *
+	 * @param path
+	 * 		CSV file or directory within the store
+	 * @return samples in file order
+	 * @throws IOException
+	 * 		when reading fails or no CSV file is found
+	 */
+	public static List<Sample> load(final Path path) throws IOException {
+		final Path csv = Files.isDirectory(path) ? latestCsv(path) : path;
+		final List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+		if (lines.isEmpty() || !CSV_HEADER.equals(lines.getFirst())) {
+			throw new IOException("Not a result store file: " + csv);
+		}
+		final List<Sample> samples = new ArrayList<>(lines.size() - 1);
+		for (int i = 1, len = lines.size(); i < len; ++i) {
+			final List<String> fields = splitCsv(lines.get(i));
+			if (fields.size() != 9) {
+				throw new IOException("Malformed line " + (i + 1) + " in " + csv);
+			}
+			samples.add(new Sample(fields.get(0), fields.get(1), Integer.parseInt(fields.get(2)), fields.get(3),
+					fields.get(4), fields.get(5), Integer.parseInt(fields.get(6)), Integer.parseInt(fields.get(7)),
+					Double.parseDouble(fields.get(8))));
+		}
+		return samples;
+	}
+	
+	private static Path latestCsv(final Path directory) throws IOException {
+		try (final Stream<Path> files = Files.walk(directory)) {
+			// timestamps are the file names, so the last file name is the latest run
+			return files.filter(p -> p.getFileName().toString().endsWith(".csv"))
+					.max(Comparator.comparing(p -> p.getFileName().toString()))
+					.orElseThrow(() -> new IOException("No results found in " + directory));
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+	
+	private static List<String> splitCsv(final String line) {
+		final List<String> fields = new ArrayList<>(9);
+		final StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0, len = line.length(); i < len; ++i) {
+			final char c = line.charAt(i);
+			if (quoted) {
+				if (c != '"') {
+					field.append(c);
+				} else if (i + 1 < len && line.charAt(i + 1) == '"') {
+					field.append('"');
+					++i;
+				} else {
+					quoted = false;
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+}
@@ -0,0 +1,104 @@
+package results;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Key of a stored benchmark run. Results of different JDKs, CPUs, power profiles and commits are kept apart, so runs
+ * are only compared when the comparison is meant.
+ *
+ * @param jdk
+ * 		JDK version of the forked benchmark VMs
+ * @param cpu
+ * 		CPU model
+ * @param powerProfile
+ * 		OS power profile, e.g. balanced or highPerformance; it can not be detected portably
+ * @param commit
+ * 		commit of the benchmark sources
+ */
+public record RunEnvironment(String jdk, String cpu, String powerProfile, String commit) {
+	
+	private static final String UNKNOWN = "unknown";
+	
+	/**
+	 * Detects the CPU model and the commit of the working directory.
+	 *
+	 * @param jdk
+	 * 		JDK version the benchmarks ran with
+	 * @param powerProfile
+	 * 		power profile to record
+	 * @param commit
+	 * 		commit to record, or {@code null} to ask git
+	 * @return environment
+	 */
+	public static RunEnvironment detect(final String jdk, final String powerProfile, final String commit) {
+		return new RunEnvironment(jdk, detectCpu(), powerProfile, commit != null ? commit : detectCommit());
+	}
+	
+	private static String detectCpu() {
+		final String windowsCpu = System.getenv("PROCESSOR_IDENTIFIER");
+		if (windowsCpu != null) {
+			return windowsCpu;
+		}
+		final Path cpuInfo = Path.of("/proc/cpuinfo");
+		if (Files.isReadable(cpuInfo)) {
+			try {
+				final List<String> lines = Files.readAllLines(cpuInfo);
+				for (final String line : lines) {
+					if (line.startsWith("model name")) {
+						return line.substring(line.indexOf(':') + 1).trim();
+					}
+				}
+			} catch (final IOException ignored) {
+				// fall through to the architecture
+			}
+		}
+		return System.getProperty("os.arch") + " " + Runtime.getRuntime().availableProcessors() + " threads";
+	}
+	
+	private static String detectCommit() {
+		try {
+			final Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true)
+					.start();
+			final String output;
+			try (final InputStream in = git.getInputStream()) {
+				output = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+			}
+			if (git.waitFor(10, TimeUnit.SECONDS) && git.exitValue() == 0 && !output.isEmpty()) {
+				return output;
+			}
+		} catch (final IOException ignored) {
+			// git is not installed
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return UNKNOWN;
+	}
+	
+	/**
+	 * Returns the directory of this environment within the result store, e.g.
+	 * {@code results/jdk-25/AMD_Ryzen_7_9800X3D_8-Core_Processor/balanced/1a2b3c4}.
+	 *
+	 * @param root
+	 * 		root directory of the result store
+	 * @return directory
+	 */
+	public Path directory(final Path root) {
+		return root.resolve("jdk-" + toDirectoryName(jdk))
+				.resolve(toDirectoryName(cpu))
+				.resolve(toDirectoryName(powerProfile))
+				.resolve(toDirectoryName(commit));
+	}
+	
+	private static String toDirectoryName(final String value) {
+		if (value == null || value.isBlank()) {
+			return UNKNOWN;
+		}
+		return value.trim().replaceAll("[^A-Za-z0-9.\\-]+", "_");
+	}
+}
@@ -0,0 +1,66 @@
+package results;
+
+/**
+ * Score of a single measurement iteration as kept in the result store.
+ *
+ * @param benchmark
+ * 		fully qualified benchmark name, e.g. {@code verify.UUIDCheck.parse}
+ * @param mode
+ * 		short JMH mode label, e.g. {@code thrpt}
+ * @param threads
+ * 		number of benchmark threads
+ * @param params
+ * 		{@code @Param} values as {@code key=value} pairs joined by {@code ;}, empty without params
+ * @param metric
+ * 		{@link #PRIMARY} or the label of a secondary result like {@code gc.alloc.rate.norm}
+ * @param unit
+ * 		score unit
+ * @param fork
+ * 		fork index starting at 0
+ * @param iteration
+ * 		measurement iteration index starting at 0
+ * @param score
+ * 		score of the iteration
+ */
+public record Sample(String benchmark, String mode, int threads, String params, String metric, String unit, int fork,
+                     int iteration, double score) {
+	
+	public static final String PRIMARY = "primary";
+	
+	/**
+	 * Returns whether this is a sample of the benchmark's primary result.
+	 *
+	 * @return true for primary results
+	 */
+	public boolean isPrimary() {
+		return PRIMARY.equals(metric);
+	}
+	
+	/**
+	 * Returns the key under which samples of the same benchmark, mode, thread count, {@code @Param} values and metric
+	 * are grouped when comparing runs.
+	 *
+	 * @return key
+	 */
+	public String key() {
+		final StringBuilder sb = new StringBuilder(benchmark);
+		if (!params.isEmpty()) {
+			sb.append(" [").append(params).append(']');
+		}
+		sb.append(' ').append(mode).append(" t=").append(threads);
+		if (!isPrimary()) {
+			sb.append(' ').append(metric);
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Returns whether a lower score is better. Only throughput units like {@code ops/s} are better when higher; times
+	 * per operation and allocation rates are better when lower.
+	 *
+	 * @return true if lower is better
+	 */
+	public boolean lowerIsBetter() {
+		return !unit.startsWith("ops/");
+	}
+}
@@ -0,0 +1,108 @@
+package string;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Aho-Corasick automaton answering whether a text contains any of a set of patterns in a single pass.
+ * <p>
+ * The automaton is a complete DFA in one flat {@code int[]}. Characters are mapped to classes first, with all
+ * characters that do not occur in any pattern sharing class 0, so a row only has as many columns as the patterns have
+ * distinct characters. Entries hold the row offset of the next state instead of its number, and entries leading into
+ * an accepting state are negative, so a step is one table load and one sign test.
+ */
+public final class AhoCorasick {
+	
+	private static final int NONE = -1;
+	
+	private final char[] classOf = new char[Character.MAX_VALUE + 1];
+	private final int[] table;
+	
+	public AhoCorasick(final Collection<String> patterns) {
+		int classes = 1;
+		for (final String pattern : patterns) {
+			if (pattern.isEmpty()) {
+				throw new IllegalArgumentException("Empty pattern");
+			}
+			for (int i = 0, len = pattern.length(); i < len; ++i) {
+				final char c = pattern.charAt(i);
+				if (classOf[c] == 0) {
+					classOf[c] = (char) classes++;
+				}
+			}
+		}
+		
+		// trie
+		int maxStates = 1;
+		for (final String pattern : patterns) {
+			maxStates += pattern.length();
+		}
+		final int[] next = new int[maxStates * classes];
+		Arrays.fill(next, NONE);
+		final boolean[] accepting = new boolean[maxStates];
+		int states = 1;
+		for (final String pattern : patterns) {
+			int state = 0;
+			for (int i = 0, len = pattern.length(); i < len; ++i) {
+				final int slot = state * classes + classOf[pattern.charAt(i)];
+				if (next[slot] == NONE) {
+					next[slot] = states++;
+				}
+				state = next[slot];
+			}
+			accepting[state] = true;
+		}
+		
+		// breadth-first completion: missing transitions follow the failure link of their state
+		final int[] fail = new int[states];
+		final ArrayDeque<Integer> queue = new ArrayDeque<>();
+		for (int c = 0; c < classes; ++c) {
+			final int child = next[c];
+			if (child == NONE) {
+				next[c] = 0;
+			} else {
+				fail[child] = 0;
+				queue.add(child);
+			}
+		}
+		while (!queue.isEmpty()) {
+			final int state = queue.poll();
+			for (int c = 0; c < classes; ++c) {
+				final int slot = state * classes + c;
+				final int fallback = next[fail[state] * classes + c];
+				final int child = next[slot];
+				if (child == NONE) {
+					next[slot] = fallback;
+				} else {
+					fail[child] = fallback;
+					accepting[child] |= accepting[fallback];
+					queue.add(child);
+				}
+			}
+		}
+		
+		table = new int[states * classes];
+		for (int i = 0, len = table.length; i < len; ++i) {
+			table[i] = accepting[next[i]] ? NONE : next[i] * classes;
+		}
+	}
+	
+	/**
+	 * Returns whether the text contains any pattern.
+	 *
+	 * @param text
+	 * 		text to search
+	 * @return true if a pattern occurs in the text
+	 */
+	public boolean containsAny(final String text) {
+		int state = 0;
+		for (int i = 0, len = text.length(); i < len; ++i) {
+			state = table[state + classOf[text.charAt(i)]];
+			if (state < 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,154 @@
+package string;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Search engines for raw byte[] and char[] haystacks. Requires {@code --add-modules=jdk.incubator.vector}.
+ */
+public final class ByteSearch {
+	
+	private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Short> CHARS = ShortVector.SPECIES_PREFERRED;
+	private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final long LOW_BITS = 0x0101010101010101L;
+	private static final long HIGH_BITS = 0x8080808080808080L;
+	
+	private ByteSearch() {
+		// no instances
+	}
+	
+	public static int indexOfScalar(final byte[] haystack, final byte b) {
+		for (int i = 0, len = haystack.length; i < len; ++i) {
+			if (haystack[i] == b) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * SWAR scan testing 8 bytes per step within a long.
+	 *
+	 * @param haystack
+	 * 		haystack
+	 * @param b
+	 * 		byte to find
+	 * @return index of the first occurrence or -1
+	 */
+	public static int indexOfSwar(final byte[] haystack, final byte b) {
+		final long pattern = (b & 0xFFL) * LOW_BITS;
+		int i = 0;
+		for (final int bound = haystack.length - Long.BYTES; i <= bound; i += Long.BYTES) {
+			final long x = (long) LONGS.get(haystack, i) ^ pattern;
+			// high bit is set for zero bytes; borrows only cause false hits above a real one, so the lowest is exact
+			final long found = (x - LOW_BITS) & ~x & HIGH_BITS;
+			if (found != 0) {
+				return i + (Long.numberOfTrailingZeros(found) >>> 3);
+			}
+		}
+		for (final int len = haystack.length; i < len; ++i) {
+			if (haystack[i] == b) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	public static int indexOfVector(final byte[] haystack, final byte b) {
+		int i = 0;
+		for (final int bound = BYTES.loopBound(haystack.length); i < bound; i += BYTES.length()) {
+			final VectorMask<Byte> found = ByteVector.fromArray(BYTES, haystack, i).eq(b);
+			if (found.anyTrue()) {
+				return i + found.firstTrue();
+			}
+		}
+		for (final int len = haystack.length; i < len; ++i) {
+			if (haystack[i] == b) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	public static int indexOfVector(final char[] haystack, final char c) {
+		int i = 0;
+		for (final int bound = CHARS.loopBound(haystack.length); i < bound; i += CHARS.length()) {
+			final VectorMask<Short> found = ShortVector.fromCharArray(CHARS, haystack, i).eq((short) c);
+			if (found.anyTrue()) {
+				return i + found.firstTrue();
+			}
+		}
+		for (final int len = haystack.length; i < len; ++i) {
+			if (haystack[i] == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Naive multi-byte search verifying every position whose first byte matches.
+	 *
+	 * @param haystack
+	 * 		haystack
+	 * @param needle
+	 * 		non-empty needle
+	 * @return index of the first occurrence or -1
+	 */
+	public static int indexOfScalar(final byte[] haystack, final byte[] needle) {
+		final byte first = needle[0];
+		for (int i = 0, end = haystack.length - needle.length; i <= end; ++i) {
+			if (haystack[i] == first && matchesAt(haystack, i, needle)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Multi-byte search in the style of SIMD memmem: candidates are positions where both the first and the last byte
+	 * of the needle match, tested for a whole vector at once. Only candidates are verified.
+	 *
+	 * @param haystack
+	 * 		haystack
+	 * @param needle
+	 * 		non-empty needle
+	 * @return index of the first occurrence or -1
+	 */
+	public static int indexOfVector(final byte[] haystack, final byte[] needle) {
+		final int last = needle.length - 1;
+		final int end = haystack.length - needle.length;
+		final ByteVector first = ByteVector.broadcast(BYTES, needle[0]);
+		final ByteVector lastByte = ByteVector.broadcast(BYTES, needle[last]);
+		int i = 0;
+		for (final int bound = end + 1 - BYTES.length(); i <= bound; i += BYTES.length()) {
+			final VectorMask<Byte> candidates = ByteVector.fromArray(BYTES, haystack, i)
+					.eq(first)
+					.and(ByteVector.fromArray(BYTES, haystack, i + last).eq(lastByte));
+			for (long bits = candidates.toLong(); bits != 0; bits &= bits - 1) {
+				final int pos = i + Long.numberOfTrailingZeros(bits);
+				if (matchesAt(haystack, pos, needle)) {
+					return pos;
+				}
+			}
+		}
+		for (; i <= end; ++i) {
+			if (haystack[i] == needle[0] && matchesAt(haystack, i, needle)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	private static boolean matchesAt(final byte[] haystack, final int pos, final byte[] needle) {
+		return Arrays.equals(haystack, pos, pos + needle.length, needle, 0, needle.length);
+	}
+}
@@ -12,10 +12,6 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
-import org.openjdk.jmh.runner.Runner;
-import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
-import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.concurrent.TimeUnit;
 
@@ -30,12 +26,6 @@ public class IndexOfChar {
 	
 	private static final String STR = "1234567890ABCDEFGHIJKLMNOPQRSTUVWXYZ";
 	
-	public static void main(final String[] args) throws RunnerException {
-		final Options opt =
-				new OptionsBuilder().include(".*" + IndexOfChar.class.getSimpleName() + ".*").forks(1).build();
-		new Runner(opt).run();
-	}
-	
 	@Benchmark
 	public void stringIndexOfChar(final Blackhole bh) {
 		final int i = STR.indexOf('H');
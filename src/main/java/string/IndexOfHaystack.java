@@ -0,0 +1,154 @@
+package string;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delimiter and keyword search in log-like haystacks from 16 B up to 64 MB, comparing the String intrinsics with the
+ * scalar, SWAR and Vector API engines of {@link ByteSearch}.
+ */
+@Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G", "--add-modules=jdk.incubator.vector" })
+@Threads(1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class IndexOfHaystack {
+	
+	private static final char DELIMITER = '|';
+	private static final String NEEDLE = "ERROR";
+	private static final byte[] NEEDLE_BYTES = NEEDLE.getBytes(StandardCharsets.ISO_8859_1);
+	private static final String FILLER = "abcdefghijklmnopqrstuvwxyz0123456789 ERO:=";
+	
+	@Param({ "16", "256", "4096", "65536", "1048576", "67108864" })
+	private int size;
+	@Param({ "START", "MIDDLE", "END", "MISS" })
+	private HitPosition hit;
+	
+	private String delimiterString;
+	private char[] delimiterChars;
+	private byte[] delimiterBytes;
+	private String needleString;
+	private byte[] needleHaystack;
+	
+	@Setup
+	public void setup() {
+		final byte[] filler = createFiller(size);
+		
+		delimiterBytes = filler.clone();
+		final int delimiterPos = hit.position(size, 1);
+		if (delimiterPos >= 0) {
+			delimiterBytes[delimiterPos] = (byte) DELIMITER;
+		}
+		delimiterString = new String(delimiterBytes, StandardCharsets.ISO_8859_1);
+		delimiterChars = delimiterString.toCharArray();
+		
+		needleHaystack = filler;
+		final int needlePos = hit.position(size, NEEDLE_BYTES.length);
+		if (needlePos >= 0) {
+			System.arraycopy(NEEDLE_BYTES, 0, needleHaystack, needlePos, NEEDLE_BYTES.length);
+		}
+		needleString = new String(needleHaystack, StandardCharsets.ISO_8859_1);
+		
+		checkResult(delimiterPos, ByteSearch.indexOfScalar(delimiterBytes, (byte) DELIMITER));
+		checkResult(delimiterPos, ByteSearch.indexOfSwar(delimiterBytes, (byte) DELIMITER));
+		checkResult(delimiterPos, ByteSearch.indexOfVector(delimiterBytes, (byte) DELIMITER));
+		checkResult(delimiterPos, ByteSearch.indexOfVector(delimiterChars, DELIMITER));
+		checkResult(needlePos, ByteSearch.indexOfScalar(needleHaystack, NEEDLE_BYTES));
+		checkResult(needlePos, ByteSearch.indexOfVector(needleHaystack, NEEDLE_BYTES));
+	}
+	
+	/**
+	 * Creates random text that contains the needle's letters, so the multi-byte search has to reject candidates, but
+	 * neither the delimiter nor the needle itself.
+	 */
+	private static byte[] createFiller(final int size) {
+		final Random random = new Random(42);
+		final byte[] filler = new byte[size];
+		for (int i = 0; i < size; ++i) {
+			filler[i] = (byte) FILLER.charAt(random.nextInt(FILLER.length()));
+		}
+		for (int i = 0, end = size - NEEDLE_BYTES.length; i <= end; ++i) {
+			if (Arrays.equals(filler, i, i + NEEDLE_BYTES.length, NEEDLE_BYTES, 0, NEEDLE_BYTES.length)) {
+				filler[i] = 'e';
+			}
+		}
+		return filler;
+	}
+	
+	private static void checkResult(final int expected, final int val) {
+		if (val != expected) {
+			throw new IllegalStateException("Wrong result! Expected " + expected + ", received " + val);
+		}
+	}
+	
+	@Benchmark
+	public void stringIndexOfChar(final Blackhole bh) {
+		bh.consume(delimiterString.indexOf(DELIMITER));
+	}
+	
+	@Benchmark
+	public void charArrayVector(final Blackhole bh) {
+		bh.consume(ByteSearch.indexOfVector(delimiterChars, DELIMITER));
+	}
+	
+	@Benchmark
+	public void byteArrayScalar(final Blackhole bh) {
+		bh.consume(ByteSearch.indexOfScalar(delimiterBytes, (byte) DELIMITER));
+	}
+	
+	@Benchmark
+	public void byteArraySwar(final Blackhole bh) {
+		bh.consume(ByteSearch.indexOfSwar(delimiterBytes, (byte) DELIMITER));
+	}
+	
+	@Benchmark
+	public void byteArrayVector(final Blackhole bh) {
+		bh.consume(ByteSearch.indexOfVector(delimiterBytes, (byte) DELIMITER));
+	}
+	
+	@Benchmark
+	public void stringIndexOfString(final Blackhole bh) {
+		bh.consume(needleString.indexOf(NEEDLE));
+	}
+	
+	@Benchmark
+	public void needleScalar(final Blackhole bh) {
+		bh.consume(ByteSearch.indexOfScalar(needleHaystack, NEEDLE_BYTES));
+	}
+	
+	@Benchmark
+	public void needleVector(final Blackhole bh) {
+		bh.consume(ByteSearch.indexOfVector(needleHaystack, NEEDLE_BYTES));
+	}
+	
+	public enum HitPosition {
+		START, MIDDLE, END, MISS;
+		
+		int position(final int size, final int length) {
+			return switch (this) {
+				case START -> 0;
+				case MIDDLE -> (size - length) / 2;
+				case END -> size - length;
+				case MISS -> -1;
+			};
+		}
+	}
+}
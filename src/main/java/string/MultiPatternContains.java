@@ -0,0 +1,127 @@
+package string;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks log messages against a keyword list: a loop of {@link String#contains} per keyword versus one pass of an
+ * {@link AhoCorasick} automaton. One operation checks all messages.
+ */
+@Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G" })
+@Threads(1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class MultiPatternContains {
+	
+	private static final int MESSAGES = 1000;
+	private static final int WORDS_PER_MESSAGE = 24;
+	
+	@Param({ "10", "100", "1000" })
+	private int patterns;
+	@Param({ "0", "10" })
+	private int matchingPercent;
+	
+	private List<String> keywords;
+	private List<String> messages;
+	private AhoCorasick automaton;
+	private int expectedMatches;
+	
+	@Setup
+	public void setup() {
+		final Random random = new Random(42);
+		final Set<String> keywordSet = new LinkedHashSet<>(patterns);
+		while (keywordSet.size() < patterns) {
+			keywordSet.add(randomWord(random, 6, 12));
+		}
+		keywords = List.copyOf(keywordSet);
+		automaton = new AhoCorasick(keywords);
+		
+		messages = new ArrayList<>(MESSAGES);
+		for (int i = 0; i < MESSAGES; ++i) {
+			final StringBuilder sb = new StringBuilder("2025-01-01T00:00:00.000Z INFO [worker-").append(i % 16)
+					.append(']');
+			final int keywordAt = random.nextInt(100) < matchingPercent ? random.nextInt(WORDS_PER_MESSAGE) : -1;
+			for (int w = 0; w < WORDS_PER_MESSAGE; ++w) {
+				sb.append(' ').append(w == keywordAt ?
+						keywords.get(random.nextInt(keywords.size())) :
+						randomWord(random, 2, 8));
+			}
+			messages.add(sb.toString());
+		}
+		
+		// random words may contain keywords by chance, so the loop defines the expected result
+		expectedMatches = countContainsLoop();
+		checkResult(countAhoCorasick());
+	}
+	
+	private static String randomWord(final Random random, final int minLength, final int maxLength) {
+		final int length = minLength + random.nextInt(maxLength - minLength + 1);
+		final StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < length; ++i) {
+			sb.append((char) ('a' + random.nextInt(26)));
+		}
+		return sb.toString();
+	}
+	
+	private int checkResult(final int val) {
+		if (val != expectedMatches) {
+			throw new IllegalStateException("Wrong result! Expected " + expectedMatches + ", received " + val);
+		}
+		return val;
+	}
+	
+	private int countContainsLoop() {
+		int count = 0;
+		for (int m = 0, len = messages.size(); m < len; ++m) {
+			final String message = messages.get(m);
+			for (int k = 0, kLen = keywords.size(); k < kLen; ++k) {
+				if (message.contains(keywords.get(k))) {
+					++count;
+					break;
+				}
+			}
+		}
+		return count;
+	}
+	
+	private int countAhoCorasick() {
+		int count = 0;
+		for (int m = 0, len = messages.size(); m < len; ++m) {
+			if (automaton.containsAny(messages.get(m))) {
+				++count;
+			}
+		}
+		return count;
+	}
+	
+	@Benchmark
+	public void containsLoop(final Blackhole bh) {
+		bh.consume(checkResult(countContainsLoop()));
+	}
+	
+	@Benchmark
+	public void ahoCorasick(final Blackhole bh) {
+		bh.consume(checkResult(countAhoCorasick()));
+	}
+}
@@ -0,0 +1,12 @@
+package verify;
+
+/**
+ * Thrown for malformed UUID strings. Whether a stack trace is captured is decided per instance, so the cost of
+ * {@link Throwable#fillInStackTrace()} can be measured separately from the cost of throwing.
+ */
+final class InvalidUuidException extends RuntimeException {
+	
+	InvalidUuidException(final String message, final boolean writableStackTrace) {
+		super(message, null, false, writableStackTrace);
+	}
+}
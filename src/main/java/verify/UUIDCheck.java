@@ -13,20 +13,18 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
-import org.openjdk.jmh.runner.Runner;
-import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
-import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 @Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
 @Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
-@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G" })
+@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G", "--add-modules=jdk.incubator.vector" })
 @Threads(1)
 @BenchmarkMode(Mode.Throughput)
 @OutputTimeUnit(TimeUnit.SECONDS)
@@ -36,27 +34,67 @@ public class UUIDCheck {
 	private static final Pattern singleRegexPattern = Pattern.compile("([a-f0-9]{8}(-[a-f0-9]{4}){4}[a-f0-9]{8})");
 	@Param({ "1000" })
 	private int N;
+	/**
+	 * percentage of malformed strings; the all-valid baseline of the recorded results runs once with
+	 * {@code -p invalidPercent=0 -p malformation=BAD_HEX}, as the malformation does not matter then
+	 */
+	@Param({ "5", "50" })
+	private int invalidPercent;
+	@Param({ "BAD_HEX", "WRONG_LENGTH", "UPPERCASE", "MISSING_HYPHENS" })
+	private Malformation malformation;
 	private List<String> DATA_FOR_TESTING = createData();
-	
-	public static void main(final String[] args) throws RunnerException {
-		final Options opt =
-				new OptionsBuilder().include(".*" + UUIDCheck.class.getSimpleName() + ".*").forks(1).build();
-		new Runner(opt).run();
-	}
+	private final UuidParser parser = new UuidParser();
 	
 	@Setup
 	public void setup() {
 		DATA_FOR_TESTING = createData();
+		for (final String s : DATA_FOR_TESTING) {
+			UUID expected;
+			try {
+				expected = UUID.fromString(s);
+			} catch (final IllegalArgumentException ignored) {
+				expected = null;
+			}
+			checkResult(s, expected, parser.parse(s));
+			checkResult(s, expected, parser.parseVector(s));
+		}
 	}
 	
 	private List<String> createData() {
+		final Random random = new Random(42);
 		final List<String> data = new ArrayList<>(N);
 		for (int i = 0; i < N; ++i) {
-			data.add(UUID.randomUUID().toString());
+			final String uuid = UUID.randomUUID().toString();
+			if (random.nextInt(100) < invalidPercent) {
+				final String malformed = malformation.apply(uuid, random);
+				if (malformation != Malformation.UPPERCASE && isUuid(malformed)) {
+					throw new IllegalStateException(malformation + " produced a valid UUID: " + malformed);
+				}
+				data.add(malformed);
+			} else {
+				data.add(uuid);
+			}
 		}
 		return data;
 	}
 	
+	private static boolean isUuid(final String s) {
+		try {
+			UUID.fromString(s);
+			return true;
+		} catch (final IllegalArgumentException ignored) {
+			return false;
+		}
+	}
+	
+	private void checkResult(final String s, final UUID expected, final boolean valid) {
+		if (valid != (expected != null) || valid && (parser.getMostSignificantBits() !=
+				expected.getMostSignificantBits() || parser.getLeastSignificantBits() !=
+				expected.getLeastSignificantBits())) {
+			throw new IllegalStateException("Wrong result for " + s + "! Expected " + expected);
+		}
+	}
+	
 	@Benchmark
 	public void parse(final Blackhole bh) {
 		for (int i = DATA_FOR_TESTING.size() - 1; i >= 0; --i) {
@@ -73,6 +111,47 @@ public class UUIDCheck {
 		}
 	}
 	
+	/**
+	 * Same as {@link #parse(Blackhole)}, but the JVM does not fill in stack traces of any exception.
+	 */
+	@Benchmark
+	@Fork(value = 1, jvmArgs = { "-Xms2G", "-Xmx2G", "--add-modules=jdk.incubator.vector",
+			"-XX:-StackTraceInThrowable" })
+	public void parseNoStackTrace(final Blackhole bh) {
+		parse(bh);
+	}
+	
+	@Benchmark
+	public void throwingFullStackTrace(final Blackhole bh) {
+		throwing(bh, true);
+	}
+	
+	@Benchmark
+	public void throwingStackless(final Blackhole bh) {
+		throwing(bh, false);
+	}
+	
+	/**
+	 * Exception-driven validation on top of {@link UuidParser}, so the difference to {@link #handWritten(Blackhole)}
+	 * is the cost of the exceptions alone.
+	 */
+	private void throwing(final Blackhole bh, final boolean writableStackTrace) {
+		for (int i = DATA_FOR_TESTING.size() - 1; i >= 0; --i) {
+			final String s = DATA_FOR_TESTING.get(i);
+			boolean result;
+			try {
+				if (!parser.parse(s)) {
+					throw new InvalidUuidException("Invalid UUID string: " + s, writableStackTrace);
+				}
+				result = true;
+			} catch (final InvalidUuidException ignored) {
+				result = false;
+			}
+			bh.consume(s);
+			bh.consume(result);
+		}
+	}
+	
 	@Benchmark
 	public void singleRegex(final Blackhole bh) {
 		for (int i = DATA_FOR_TESTING.size() - 1; i >= 0; --i) {
@@ -84,6 +163,56 @@ public class UUIDCheck {
 		}
 	}
 	
+	@Benchmark
+	public void handWritten(final Blackhole bh) {
+		for (int i = DATA_FOR_TESTING.size() - 1; i >= 0; --i) {
+			final String s = DATA_FOR_TESTING.get(i);
+			final boolean result = parser.parse(s);
+			
+			bh.consume(s);
+			bh.consume(result);
+			bh.consume(parser.getMostSignificantBits() ^ parser.getLeastSignificantBits());
+		}
+	}
+	
+	@Benchmark
+	public void vectorized(final Blackhole bh) {
+		for (int i = DATA_FOR_TESTING.size() - 1; i >= 0; --i) {
+			final String s = DATA_FOR_TESTING.get(i);
+			final boolean result = parser.parseVector(s);
+			
+			bh.consume(s);
+			bh.consume(result);
+			bh.consume(parser.getMostSignificantBits() ^ parser.getLeastSignificantBits());
+		}
+	}
+	
+	/**
+	 * Kinds of malformed input. {@link #UPPERCASE} is valid for {@link UUID#fromString(String)} and
+	 * {@link UuidParser}, but rejected by the lower case regex. {@link #WRONG_LENGTH} appends hex digits, as
+	 * {@link UUID#fromString(String)} accepts shortened groups.
+	 */
+	public enum Malformation {
+		BAD_HEX, WRONG_LENGTH, UPPERCASE, MISSING_HYPHENS;
+		
+		String apply(final String uuid, final Random random) {
+			return switch (this) {
+				case BAD_HEX -> {
+					// replace one hex digit, skipping the hyphens
+					final char[] chars = uuid.toCharArray();
+					int pos;
+					do {
+						pos = random.nextInt(chars.length);
+					} while (chars[pos] == '-');
+					chars[pos] = 'g';
+					yield new String(chars);
+				}
+				case WRONG_LENGTH -> uuid + "0123".substring(0, 1 + random.nextInt(4));
+				case UPPERCASE -> uuid.toUpperCase(Locale.ROOT);
+				case MISSING_HYPHENS -> uuid.replace("-", "");
+			};
+		}
+	}
 }
 /*
 JDK-17 - laptop 6+6 cores
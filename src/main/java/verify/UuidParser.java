@@ -0,0 +1,155 @@
+package verify;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * Parser for canonical 36 character UUID strings like {@code 123e4567-e89b-12d3-a456-426614174000}, accepting upper
+ * and lower case hex digits. Unlike {@link java.util.UUID#fromString(String)} invalid input is reported by the return
+ * value instead of an exception, and the parsed bits are kept in the parser instead of a new UUID, so parsing does not
+ * allocate. Instances are reusable but not thread-safe.
+ * <p>
+ * The vector variant requires {@code --add-modules=jdk.incubator.vector}.
+ */
+public final class UuidParser {
+	
+	private static final int LENGTH = 36;
+	private static final int[] HYPHENS = { 8, 13, 18, 23 };
+	private static final int[] MSB_DIGITS = { 0, 1, 2, 3, 4, 5, 6, 7, 9, 10, 11, 12, 14, 15, 16, 17 };
+	private static final int[] LSB_DIGITS = { 19, 20, 21, 22, 24, 25, 26, 27, 28, 29, 30, 31, 32, 33, 34, 35 };
+	/** hex value of a Latin-1 char, -1 for everything else */
+	private static final byte[] HEX = new byte[256];
+	
+	private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+	private static final int CHUNKS = (LENGTH + SPECIES.length() - 1) / SPECIES.length();
+	/** per vector chunk: lanes that must hold a hex digit, lanes that must hold a hyphen */
+	private static final VectorMask<Short>[] HEX_LANES;
+	private static final VectorMask<Short>[] HYPHEN_LANES;
+	
+	static {
+		Arrays.fill(HEX, (byte) -1);
+		for (int i = 0; i < 10; ++i) {
+			HEX['0' + i] = (byte) i;
+		}
+		for (int i = 0; i < 6; ++i) {
+			HEX['a' + i] = (byte) (10 + i);
+			HEX['A' + i] = (byte) (10 + i);
+		}
+		
+		final boolean[] hex = new boolean[CHUNKS * SPECIES.length()];
+		final boolean[] hyphen = new boolean[hex.length];
+		Arrays.fill(hex, 0, LENGTH, true);
+		for (final int pos : HYPHENS) {
+			hex[pos] = false;
+			hyphen[pos] = true;
+		}
+		@SuppressWarnings("unchecked")
+		final VectorMask<Short>[] hexLanes = new VectorMask[CHUNKS];
+		@SuppressWarnings("unchecked")
+		final VectorMask<Short>[] hyphenLanes = new VectorMask[CHUNKS];
+		for (int i = 0; i < CHUNKS; ++i) {
+			hexLanes[i] = VectorMask.fromArray(SPECIES, hex, i * SPECIES.length());
+			hyphenLanes[i] = VectorMask.fromArray(SPECIES, hyphen, i * SPECIES.length());
+		}
+		HEX_LANES = hexLanes;
+		HYPHEN_LANES = hyphenLanes;
+	}
+	
+	/** chars of the last input for the vector variant, padded to whole vectors */
+	private final char[] chars = new char[CHUNKS * SPECIES.length()];
+	private long mostSignificantBits;
+	private long leastSignificantBits;
+	
+	/**
+	 * Validates and parses a UUID. Hyphens are checked at their fixed offsets, the digits are decoded in groups of four
+	 * via lookup table and validated together with a single branch at the end.
+	 *
+	 * @param s
+	 * 		UUID string
+	 * @return true if valid; only then the parsed bits are updated
+	 */
+	public boolean parse(final String s) {
+		if (s.length() != LENGTH ||
+				((s.charAt(8) ^ '-') | (s.charAt(13) ^ '-') | (s.charAt(18) ^ '-') | (s.charAt(23) ^ '-')) != 0) {
+			return false;
+		}
+		final int g0 = hex4(s, 0);
+		final int g1 = hex4(s, 4);
+		final int g2 = hex4(s, 9);
+		final int g3 = hex4(s, 14);
+		final int g4 = hex4(s, 19);
+		final int g5 = hex4(s, 24);
+		final int g6 = hex4(s, 28);
+		final int g7 = hex4(s, 32);
+		if ((g0 | g1 | g2 | g3 | g4 | g5 | g6 | g7) < 0) {
+			return false;
+		}
+		mostSignificantBits = (long) g0 << 48 | (long) g1 << 32 | (long) g2 << 16 | g3;
+		leastSignificantBits = (long) g4 << 48 | (long) g5 << 32 | (long) g6 << 16 | g7;
+		return true;
+	}
+	
+	/**
+	 * Decodes four hex digits; negative if any of them is invalid.
+	 */
+	private static int hex4(final String s, final int offset) {
+		return digit(s.charAt(offset)) << 12 | digit(s.charAt(offset + 1)) << 8 | digit(s.charAt(offset + 2)) << 4 |
+				digit(s.charAt(offset + 3));
+	}
+	
+	/**
+	 * Negative for anything but a hex digit. Chars above Latin-1 are made negative without a branch.
+	 */
+	private static int digit(final char c) {
+		return HEX[c & 0xFF] | -(c >>> 8);
+	}
+	
+	/**
+	 * Same as {@link #parse(String)}, but validates all 36 chars with the Vector API before decoding.
+	 *
+	 * @param s
+	 * 		UUID string
+	 * @return true if valid; only then the parsed bits are updated
+	 */
+	public boolean parseVector(final String s) {
+		if (s.length() != LENGTH) {
+			return false;
+		}
+		s.getChars(0, LENGTH, chars, 0);
+		for (int i = 0; i < CHUNKS; ++i) {
+			final ShortVector v = ShortVector.fromCharArray(SPECIES, chars, i * SPECIES.length());
+			final VectorMask<Short> digit =
+					v.compare(VectorOperators.GE, (short) '0').and(v.compare(VectorOperators.LE, (short) '9'));
+			// setting bit 0x20 folds 'A'-'F' onto 'a'-'f' and maps nothing else into that range
+			final ShortVector lower = v.or((short) 0x20);
+			final VectorMask<Short> letter =
+					lower.compare(VectorOperators.GE, (short) 'a').and(lower.compare(VectorOperators.LE, (short) 'f'));
+			final VectorMask<Short> hexOk = digit.or(letter).or(HEX_LANES[i].not());
+			final VectorMask<Short> hyphenOk = v.eq((short) '-').or(HYPHEN_LANES[i].not());
+			if (!hexOk.and(hyphenOk).allTrue()) {
+				return false;
+			}
+		}
+		long msb = 0;
+		long lsb = 0;
+		for (int i = 0; i < 16; ++i) {
+			msb = (msb << 4) | HEX[chars[MSB_DIGITS[i]]];
+			lsb = (lsb << 4) | HEX[chars[LSB_DIGITS[i]]];
+		}
+		mostSignificantBits = msb;
+		leastSignificantBits = lsb;
+		return true;
+	}
+	
+	public long getMostSignificantBits() {
+		return mostSignificantBits;
+	}
+	
+	public long getLeastSignificantBits() {
+		return leastSignificantBits;
+	}
+}